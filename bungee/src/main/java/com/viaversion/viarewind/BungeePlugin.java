@@ -31,4 +31,9 @@ public class BungeePlugin extends Plugin implements ViaRewindPlatform {
         conf.reloadConfig();
         this.init(conf);
     }
+
+    @Override
+    public void onDisable() {
+        this.disable();
+    }
 }
@@ -57,6 +57,61 @@ public class ViaRewindConfig extends Config implements com.viaversion.viarewind.
         return getInt("max-book-page-length", 5000);
     }
 
+    @Override
+    public int getChunkCacheSize() {
+        return getInt("chunk-cache-size", 1024);
+    }
+
+    @Override
+    public int getChunkCacheMemory() {
+        return getInt("chunk-cache-memory", 16384);
+    }
+
+    @Override
+    public int getChunkCompressionLevel() {
+        return getInt("chunk-compression-level", 6);
+    }
+
+    @Override
+    public CompressionStrategy getChunkCompressionStrategy() {
+        return CompressionStrategy.valueOf(getString("chunk-compression-strategy", "DEFAULT").toUpperCase());
+    }
+
+    @Override
+    public int getChunkCompressionBufferSize() {
+        return getInt("chunk-compression-buffer-size", 8192);
+    }
+
+    @Override
+    public int getChunkConversionThreads() {
+        return getInt("chunk-conversion-threads", 0);
+    }
+
+    @Override
+    public int getHologramViewDistance() {
+        return getInt("hologram-view-distance", 0);
+    }
+
+    @Override
+    public int getItemCacheSize() {
+        return getInt("item-cache-size", 1024);
+    }
+
+    @Override
+    public boolean isWindowItemDiffing() {
+        return getBoolean("window-item-diffing", false);
+    }
+
+    @Override
+    public int getSoundDeduplicationWindow() {
+        return getInt("sound-deduplication-window", 0);
+    }
+
+    @Override
+    public int getLegacyTextCacheSize() {
+        return getInt("legacy-text-cache-size", 1024);
+    }
+
     @Override
     public URL getDefaultConfigURL() {
         return getClass().getClassLoader().getResource("assets/viarewind/config.yml");
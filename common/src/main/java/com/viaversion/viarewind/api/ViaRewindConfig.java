@@ -27,6 +27,10 @@ public interface ViaRewindConfig {
 		TITLE, ACTION_BAR, BOSS_BAR, DISABLED
 	}
 
+	enum CompressionStrategy {
+		DEFAULT, FILTERED, HUFFMAN_ONLY
+	}
+
 	/**
 	 * Specifies how 1.8.x clients should see the cooldown indicator
 	 * You can choose between TITLE, ACTION_BAR, BOSS_BAR and DISABLED
@@ -67,4 +71,89 @@ public interface ViaRewindConfig {
 	 * @return the max amount of characters
 	 */
 	int getMaxBookPageSize();
+
+	/**
+	 * Max amount of converted 1.7 single chunk packets which are shared between all players
+	 * Set to 0 to disable the cache
+	 *
+	 * @return the max amount of cached chunk packets
+	 */
+	int getChunkCacheSize();
+
+	/**
+	 * Max amount of memory in kilobytes the shared chunk cache may use
+	 *
+	 * @return the max memory of the chunk cache
+	 */
+	int getChunkCacheMemory();
+
+	/**
+	 * Deflate level (0-9) used to compress chunks for 1.7.x clients
+	 * Lower levels use less CPU but send more bytes
+	 *
+	 * @return the compression level
+	 */
+	int getChunkCompressionLevel();
+
+	/**
+	 * Deflate strategy used to compress chunks for 1.7.x clients
+	 * You can choose between DEFAULT, FILTERED and HUFFMAN_ONLY
+	 *
+	 * @return the compression strategy
+	 */
+	CompressionStrategy getChunkCompressionStrategy();
+
+	/**
+	 * Amount of bytes the chunk compressor produces per deflate call
+	 *
+	 * @return the buffer size
+	 */
+	int getChunkCompressionBufferSize();
+
+	/**
+	 * Amount of worker threads used to convert the chunks of a chunk bulk packet in parallel
+	 * Set to 0 to convert them on the network thread of the player
+	 *
+	 * @return the amount of worker threads
+	 */
+	int getChunkConversionThreads();
+
+	/**
+	 * Distance in blocks around 1.7.x players in which armor stands and holograms are spawned
+	 * Set to 0 to spawn all armor stands the server sends
+	 *
+	 * @return the hologram view distance
+	 */
+	int getHologramViewDistance();
+
+	/**
+	 * Max amount of translated items with nbt data which are shared between all players
+	 * Set to 0 to disable the cache
+	 *
+	 * @return the max amount of cached items
+	 */
+	int getItemCacheSize();
+
+	/**
+	 * Only sends the changed slots if the server resends a mostly unchanged window
+	 *
+	 * @return true if enabled
+	 */
+	boolean isWindowItemDiffing();
+
+	/**
+	 * Time in milliseconds in which identical sounds at the same block are only sent once to 1.8 clients
+	 * Set to 0 to send all sounds
+	 *
+	 * @return the sound deduplication window
+	 */
+	int getSoundDeduplicationWindow();
+
+	/**
+	 * Max amount of json components converted to legacy text which are shared between all players
+	 * Set to 0 to disable the cache
+	 *
+	 * @return the max amount of cached texts
+	 */
+	int getLegacyTextCacheSize();
 }
@@ -19,6 +19,9 @@
 package com.viaversion.viarewind.api;
 
 import com.viaversion.viarewind.protocol.protocol1_7_2_5to1_7_6_10.Protocol1_7_2_5To1_7_6_10;
+import com.viaversion.viarewind.protocol.protocol1_7_6_10to1_8.chunks.ChunkCompression;
+import com.viaversion.viarewind.protocol.protocol1_7_6_10to1_8.chunks.ParallelChunkEncoder;
+import com.viaversion.viarewind.protocol.protocol1_7_6_10to1_8.types.CompressedNBTType;
 import com.viaversion.viarewind.protocol.protocol1_8to1_9.Protocol1_8To1_9;
 import com.viaversion.viaversion.api.Via;
 import com.viaversion.viaversion.api.protocol.ProtocolManager;
@@ -51,6 +54,15 @@ public interface ViaRewindPlatform {
 		protocolManager.registerProtocol(new Protocol1_7_2_5To1_7_6_10(), ProtocolVersion.v1_7_1, ProtocolVersion.v1_7_6);
 	}
 
+	/**
+	 * Release the resources ViaRewind holds outside of connections
+	 */
+	default void disable() {
+		ParallelChunkEncoder.shutdown();
+		ChunkCompression.close();
+		CompressedNBTType.close();
+	}
+
 	/**
 	 * Get the platform logger
 	 *
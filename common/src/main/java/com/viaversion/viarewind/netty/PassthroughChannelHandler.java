@@ -18,9 +18,13 @@
 
 package com.viaversion.viarewind.netty;
 
+import io.netty.channel.ChannelDuplexHandler;
 import io.netty.channel.ChannelHandler;
-import io.netty.channel.ChannelHandlerAdapter;
 
+/**
+ * Forwards all inbound and outbound messages unchanged, without copying them into new buffers
+ */
 @ChannelHandler.Sharable
-public class EmptyChannelHandler extends ChannelHandlerAdapter {
+public class PassthroughChannelHandler extends ChannelDuplexHandler {
+	public static final PassthroughChannelHandler INSTANCE = new PassthroughChannelHandler();
 }
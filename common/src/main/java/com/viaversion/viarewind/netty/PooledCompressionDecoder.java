@@ -0,0 +1,87 @@
+/*
+ * This file is part of ViaRewind - https://github.com/ViaVersion/ViaRewind
+ * Copyright (C) 2016-2023 ViaVersion and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.viaversion.viarewind.netty;
+
+import com.viaversion.viaversion.api.type.Type;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.DecoderException;
+import io.netty.handler.codec.MessageToMessageDecoder;
+
+import java.util.List;
+import java.util.zip.Inflater;
+
+/**
+ * Compression decoder which inflates into a pooled heap buffer of the channel allocator, sized from the
+ * length prefix of the packet. Uncompressed packets are forwarded as a slice without copying.
+ */
+public class PooledCompressionDecoder extends MessageToMessageDecoder<ByteBuf> {
+	private static final int MAXIMUM_LENGTH = 2097152;
+	private final Inflater inflater = new Inflater();
+	private final int threshold;
+
+	public PooledCompressionDecoder(int threshold) {
+		this.threshold = threshold;
+	}
+
+	@Override
+	protected void decode(ChannelHandlerContext ctx, ByteBuf in, List<Object> out) throws Exception {
+		if (!in.isReadable()) return;
+
+		int outLength = Type.VAR_INT.readPrimitive(in);
+		if (outLength == 0) {
+			out.add(in.readSlice(in.readableBytes()).retain());
+			return;
+		}
+
+		if (outLength < this.threshold) {
+			throw new DecoderException("Badly compressed packet - size of " + outLength + " is below server threshold of " + this.threshold);
+		} else if (outLength > MAXIMUM_LENGTH) {
+			throw new DecoderException("Badly compressed packet - size of " + outLength + " is larger than protocol maximum of " + MAXIMUM_LENGTH);
+		}
+
+		ByteBuf input = in;
+		if (!in.hasArray()) {
+			input = ctx.alloc().heapBuffer(in.readableBytes()).writeBytes(in, in.readerIndex(), in.readableBytes());
+		}
+		ByteBuf output = ctx.alloc().heapBuffer(outLength, outLength);
+		try {
+			this.inflater.setInput(input.array(), input.arrayOffset() + input.readerIndex(), input.readableBytes());
+			int length = this.inflater.inflate(output.array(), output.arrayOffset(), outLength);
+			if (length != outLength) {
+				throw new DecoderException("Badly compressed packet - size of " + length + " doesn't match the sent size of " + outLength);
+			}
+			output.writerIndex(length);
+			in.skipBytes(in.readableBytes());
+
+			out.add(output);
+			output = null;
+		} finally {
+			if (output != null) output.release();
+			if (input != in) input.release();
+			this.inflater.reset();
+		}
+	}
+
+	@Override
+	public void handlerRemoved(ChannelHandlerContext ctx) throws Exception {
+		this.inflater.end();
+		super.handlerRemoved(ctx);
+	}
+}
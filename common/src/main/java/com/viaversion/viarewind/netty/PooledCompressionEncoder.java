@@ -0,0 +1,92 @@
+/*
+ * This file is part of ViaRewind - https://github.com/ViaVersion/ViaRewind
+ * Copyright (C) 2016-2023 ViaVersion and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.viaversion.viarewind.netty;
+
+import com.viaversion.viaversion.api.type.Type;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.MessageToByteEncoder;
+
+import java.util.zip.Deflater;
+
+/**
+ * Compression encoder which deflates directly into a pooled heap buffer of the channel allocator,
+ * the packet is only copied if it isn't backed by an array.
+ */
+public class PooledCompressionEncoder extends MessageToByteEncoder<ByteBuf> {
+	private final Deflater deflater = new Deflater();
+	private final int threshold;
+
+	public PooledCompressionEncoder(int threshold) {
+		this.threshold = threshold;
+	}
+
+	@Override
+	protected ByteBuf allocateBuffer(ChannelHandlerContext ctx, ByteBuf msg, boolean preferDirect) {
+		int frameLength = msg.readableBytes();
+		if (frameLength < this.threshold) {
+			return ctx.alloc().heapBuffer(frameLength + 1);
+		}
+		// Length prefix + zlib worst case for incompressible data
+		return ctx.alloc().heapBuffer(5 + frameLength + (frameLength >> 12) + (frameLength >> 14) + 11);
+	}
+
+	@Override
+	protected void encode(ChannelHandlerContext ctx, ByteBuf in, ByteBuf out) {
+		int frameLength = in.readableBytes();
+		if (frameLength < this.threshold) {
+			out.writeByte(0); // varint
+			out.writeBytes(in);
+			return;
+		}
+
+		Type.VAR_INT.writePrimitive(out, frameLength);
+
+		ByteBuf input = in;
+		if (!in.hasArray()) {
+			input = ctx.alloc().heapBuffer(frameLength).writeBytes(in, in.readerIndex(), frameLength);
+		}
+		ByteBuf output = out.hasArray() ? out : ctx.alloc().heapBuffer(frameLength);
+		try {
+			this.deflater.setInput(input.array(), input.arrayOffset() + input.readerIndex(), frameLength);
+			this.deflater.finish();
+
+			while (!this.deflater.finished()) {
+				output.ensureWritable(4096);
+				output.writerIndex(output.writerIndex() + this.deflater.deflate(output.array(),
+						output.arrayOffset() + output.writerIndex(), output.writableBytes()));
+			}
+			in.skipBytes(frameLength);
+
+			if (output != out) {
+				out.writeBytes(output);
+			}
+		} finally {
+			if (input != in) input.release();
+			if (output != out) output.release();
+			this.deflater.reset();
+		}
+	}
+
+	@Override
+	public void handlerRemoved(ChannelHandlerContext ctx) throws Exception {
+		this.deflater.end();
+		super.handlerRemoved(ctx);
+	}
+}
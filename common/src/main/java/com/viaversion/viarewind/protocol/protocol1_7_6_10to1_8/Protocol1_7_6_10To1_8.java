@@ -21,7 +21,6 @@ package com.viaversion.viarewind.protocol.protocol1_7_6_10to1_8;
 import com.viaversion.viarewind.protocol.protocol1_7_6_10to1_8.packets.*;
 import com.viaversion.viarewind.protocol.protocol1_7_6_10to1_8.provider.CompressionHandlerProvider;
 import com.viaversion.viarewind.protocol.protocol1_7_6_10to1_8.storage.*;
-import com.viaversion.viarewind.utils.Ticker;
 import com.viaversion.viaversion.api.Via;
 import com.viaversion.viaversion.api.connection.UserConnection;
 import com.viaversion.viaversion.api.platform.providers.ViaProviders;
@@ -109,8 +108,6 @@ public class Protocol1_7_6_10To1_8 extends AbstractProtocol<ClientboundPackets1_
 
 	@Override
 	public void init(UserConnection userConnection) {
-		Ticker.init();
-
 		userConnection.put(new Windows(userConnection));
 		userConnection.put(new EntityTracker(userConnection));
 		userConnection.put(new PlayerPosition(userConnection));
@@ -0,0 +1,166 @@
+/*
+ * This file is part of ViaRewind - https://github.com/ViaVersion/ViaRewind
+ * Copyright (C) 2016-2023 ViaVersion and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.viaversion.viarewind.protocol.protocol1_7_6_10to1_8.chunks;
+
+import com.viaversion.viarewind.ViaRewind;
+import io.netty.buffer.ByteBuf;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.IntSupplier;
+import java.util.function.LongSupplier;
+
+/**
+ * Shares compressed 1.7 chunk packets between all connections, so chunks which are sent to multiple
+ * players only have to be converted and compressed once.
+ * Entries are identified by their chunk coordinates, bitmask, the sky light flag and a hash of the 1.8 data.
+ * The limits are read on every insertion, so config changes apply without recreating the cache.
+ */
+public class ChunkCache {
+	private static final long PRIME_1 = 0x9E3779B97F4A7C15L;
+	private static final long PRIME_2 = 0xC2B2AE3D27D4EB4FL;
+	private static final ChunkCache INSTANCE = new ChunkCache(
+			() -> ViaRewind.getConfig().getChunkCacheSize(),
+			() -> ViaRewind.getConfig().getChunkCacheMemory() * 1024L
+	);
+
+	private final Map<Key, byte[]> entries = new LinkedHashMap<>(16, 0.75F, true);
+	private final IntSupplier maxEntries;
+	private final LongSupplier maxBytes;
+	private final long seed = ThreadLocalRandom.current().nextLong();
+	private long bytes;
+
+	/**
+	 * @param maxEntries supplies the max amount of entries, 0 or less disables the cache
+	 * @param maxBytes   supplies the max size of all entries in bytes, 0 or less disables the cache
+	 */
+	public ChunkCache(IntSupplier maxEntries, LongSupplier maxBytes) {
+		this.maxEntries = maxEntries;
+		this.maxBytes = maxBytes;
+	}
+
+	/**
+	 * @return the shared cache or null if it is disabled in the config
+	 */
+	public static ChunkCache getInstance() {
+		return INSTANCE.isEnabled() ? INSTANCE : null;
+	}
+
+	public boolean isEnabled() {
+		return maxEntries.getAsInt() > 0 && maxBytes.getAsLong() > 0;
+	}
+
+	public Key createKey(int chunkX, int chunkZ, int primaryBitMask, boolean groundUp, boolean skyLight, ByteBuf data) {
+		int flags = groundUp ? primaryBitMask | 1 << 16 : primaryBitMask;
+		return new Key(chunkX, chunkZ, flags, skyLight, hash(seed, data));
+	}
+
+	public synchronized byte[] get(Key key) {
+		return entries.get(key);
+	}
+
+	public synchronized void put(Key key, byte[] data) {
+		int maxEntries = this.maxEntries.getAsInt();
+		long maxBytes = this.maxBytes.getAsLong();
+		if (maxEntries > 0 && data.length <= maxBytes) {
+			byte[] previous = entries.put(key, data);
+			if (previous != null) bytes -= previous.length;
+			bytes += data.length;
+		}
+
+		Iterator<byte[]> iterator = entries.values().iterator();
+		while ((entries.size() > maxEntries || bytes > maxBytes) && iterator.hasNext()) {
+			bytes -= iterator.next().length;
+			iterator.remove();
+		}
+	}
+
+	public synchronized void clear() {
+		entries.clear();
+		bytes = 0;
+	}
+
+	public synchronized int size() {
+		return entries.size();
+	}
+
+	public synchronized long getBytes() {
+		return bytes;
+	}
+
+	/**
+	 * Hashes the readable bytes of the buffer without changing its reader index
+	 *
+	 * @param seed the seed of the hash
+	 * @param data the data to hash
+	 * @return the 64 bit hash
+	 */
+	public static long hash(long seed, ByteBuf data) {
+		long hash = seed ^ data.readableBytes() * PRIME_1;
+		int index = data.readerIndex();
+		int end = data.writerIndex();
+		for (; index + 8 <= end; index += 8) {
+			hash = Long.rotateLeft(hash ^ data.getLong(index) * PRIME_2, 31) * PRIME_1;
+		}
+		for (; index < end; index++) {
+			hash = Long.rotateLeft(hash ^ data.getByte(index) * PRIME_2, 31) * PRIME_1;
+		}
+
+		hash ^= hash >>> 33;
+		hash *= PRIME_2;
+		hash ^= hash >>> 29;
+		return hash;
+	}
+
+	public static class Key {
+		private final int chunkX;
+		private final int chunkZ;
+		private final int flags;
+		private final boolean skyLight;
+		private final long hash;
+
+		public Key(int chunkX, int chunkZ, int flags, boolean skyLight, long hash) {
+			this.chunkX = chunkX;
+			this.chunkZ = chunkZ;
+			this.flags = flags;
+			this.skyLight = skyLight;
+			this.hash = hash;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) return true;
+			if (o == null || getClass() != o.getClass()) return false;
+			Key key = (Key) o;
+			return chunkX == key.chunkX && chunkZ == key.chunkZ && flags == key.flags && skyLight == key.skyLight && hash == key.hash;
+		}
+
+		@Override
+		public int hashCode() {
+			int result = chunkX;
+			result = 31 * result + chunkZ;
+			result = 31 * result + flags;
+			result = 31 * result + (skyLight ? 1 : 0);
+			result = 31 * result + Long.hashCode(hash);
+			return result;
+		}
+	}
+}
@@ -0,0 +1,114 @@
+/*
+ * This file is part of ViaRewind - https://github.com/ViaVersion/ViaRewind
+ * Copyright (C) 2016-2023 ViaVersion and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.viaversion.viarewind.protocol.protocol1_7_6_10to1_8.chunks;
+
+import com.viaversion.viarewind.ViaRewind;
+import com.viaversion.viarewind.api.ViaRewindConfig;
+import com.viaversion.viarewind.utils.ClosableThreadLocal;
+import io.netty.buffer.ByteBuf;
+
+import java.util.zip.Deflater;
+
+/**
+ * Compresses 1.7 chunk data with the level and strategy from the config.
+ * Every thread keeps its own deflater, so the native zlib memory isn't reallocated for every chunk.
+ * The deflaters are ended on disable.
+ */
+public class ChunkCompression {
+	private static final ClosableThreadLocal<ChunkCompression> LOCAL = new ClosableThreadLocal<>(ChunkCompression::new, compression -> compression.deflater.end());
+
+	private final Deflater deflater;
+	private final byte[] buffer;
+
+	private ChunkCompression() {
+		ViaRewindConfig config = ViaRewind.getConfig();
+
+		int level = config.getChunkCompressionLevel();
+		if (level < Deflater.NO_COMPRESSION || level > Deflater.BEST_COMPRESSION) {
+			ViaRewind.getPlatform().getLogger().warning("Invalid chunk-compression-level setting");
+			level = Deflater.DEFAULT_COMPRESSION;
+		}
+
+		ViaRewindConfig.CompressionStrategy strategy;
+		try {
+			strategy = config.getChunkCompressionStrategy();
+		} catch (IllegalArgumentException e) {
+			ViaRewind.getPlatform().getLogger().warning("Invalid chunk-compression-strategy setting");
+			strategy = ViaRewindConfig.CompressionStrategy.DEFAULT;
+		}
+
+		this.deflater = new Deflater(level);
+		switch (strategy) {
+			case FILTERED:
+				deflater.setStrategy(Deflater.FILTERED);
+				break;
+			case HUFFMAN_ONLY:
+				deflater.setStrategy(Deflater.HUFFMAN_ONLY);
+				break;
+			default:
+				deflater.setStrategy(Deflater.DEFAULT_STRATEGY);
+		}
+
+		this.buffer = new byte[Math.max(config.getChunkCompressionBufferSize(), 512)];
+	}
+
+	/**
+	 * Deflates all readable bytes of the input and appends them to the output
+	 *
+	 * @param input  the data to compress
+	 * @param output the buffer to write the compressed data to
+	 */
+	public static void compress(ByteBuf input, ByteBuf output) {
+		LOCAL.get().deflate(input, output);
+	}
+
+	/**
+	 * Ends the deflaters of all threads
+	 */
+	public static void close() {
+		LOCAL.close();
+	}
+
+	private void deflate(ByteBuf input, ByteBuf output) {
+		int length = input.readableBytes();
+		try {
+			if (input.hasArray()) {
+				deflater.setInput(input.array(), input.arrayOffset() + input.readerIndex(), length);
+			} else {
+				byte[] data = new byte[length];
+				input.getBytes(input.readerIndex(), data);
+				deflater.setInput(data);
+			}
+			deflater.finish();
+
+			while (!deflater.finished()) {
+				if (output.hasArray()) {
+					output.ensureWritable(buffer.length);
+					int written = deflater.deflate(output.array(), output.arrayOffset() + output.writerIndex(), output.writableBytes());
+					output.writerIndex(output.writerIndex() + written);
+				} else {
+					output.writeBytes(buffer, 0, deflater.deflate(buffer));
+				}
+			}
+			input.skipBytes(length);
+		} finally {
+			deflater.reset();
+		}
+	}
+}
@@ -18,96 +18,68 @@
 
 package com.viaversion.viarewind.protocol.protocol1_7_6_10to1_8.chunks;
 
-import com.viaversion.viarewind.protocol.protocol1_7_6_10to1_8.items.ReplacementRegistry1_7_6_10to1_8;
-import com.viaversion.viaversion.api.minecraft.chunks.ChunkSection;
-import com.viaversion.viaversion.api.minecraft.chunks.DataPalette;
-import com.viaversion.viaversion.api.minecraft.chunks.PaletteType;
+import com.viaversion.viaversion.api.minecraft.Environment;
 import com.viaversion.viaversion.api.protocol.packet.PacketWrapper;
 import com.viaversion.viaversion.api.type.Type;
 import com.viaversion.viaversion.api.type.types.CustomByteType;
-import com.viaversion.viaversion.api.type.types.version.Types1_8;
+import com.viaversion.viaversion.protocols.protocol1_9_3to1_9_1_2.storage.ClientWorld;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufAllocator;
 import io.netty.buffer.Unpooled;
 
-import java.io.ByteArrayOutputStream;
-import java.util.zip.DeflaterOutputStream;
+import java.util.concurrent.ExecutorService;
 
 public class ChunkPacketTransformer {
 
-    private static byte[] transformChunkData(byte[] data, int primaryBitMask, boolean skyLight, boolean groundUp) throws Exception {
-        ByteBuf inputData = Unpooled.wrappedBuffer(data);
+    private static ByteBufAllocator getAllocator(PacketWrapper packetWrapper) {
+        if (packetWrapper.user().getChannel() != null) {
+            return packetWrapper.user().getChannel().alloc();
+        }
+        return ByteBufAllocator.DEFAULT;
+    }
 
-        ByteBuf finalBuf = ByteBufAllocator.DEFAULT.buffer();
+    private static byte[] compress(PacketWrapper packetWrapper, ByteBuf data) {
+        ByteBuf compressedData = getAllocator(packetWrapper).heapBuffer(data.readableBytes() / 2);
         try {
-            ChunkSection[] sections = new ChunkSection[16];
-            for (int i = 0; i < 16; i++) {
-                if ((primaryBitMask & 1 << i) == 0) continue;
-                sections[i] = Types1_8.CHUNK_SECTION.read(inputData);
-            }
-
-            for (int i = 0; i < 16; i++) {
-                if ((primaryBitMask & 1 << i) == 0) continue;
-                ChunkSection section = sections[i];
-				DataPalette palette = section.palette(PaletteType.BLOCKS);
-				for (int k = 0; k < palette.size(); k++) {
-                    int blockData = palette.idByIndex(k);
-
-                    blockData = ReplacementRegistry1_7_6_10to1_8.replace(blockData);
-
-                    palette.setIdByIndex(k, blockData);
-                }
-            }
-
-            for (int i = 0; i < 16; i++) {
-                if ((primaryBitMask & 1 << i) == 0) continue;
-                ChunkSection section = sections[i];
-				DataPalette palette = section.palette(PaletteType.BLOCKS);
-				for (int j = 0; j < 4096; j++) {
-					int raw = palette.idAt(j);
-                    finalBuf.writeByte(raw >> 4);
-                }
-            }
-
-            for (int i = 0; i < 16; i++) {
-                if ((primaryBitMask & 1 << i) == 0) continue;
-                ChunkSection section = sections[i];
-				DataPalette palette = section.palette(PaletteType.BLOCKS);
-				for (int j = 0; j < 4096; j += 2) {
-					int meta0 = palette.idAt(j) & 0xF;
-                    int meta1 = palette.idAt(j + 1) & 0xF;
-
-                    finalBuf.writeByte(meta1 << 4 | meta0);
-                }
-            }
-
-            int columnCount = Integer.bitCount(primaryBitMask);
-
-            // Block light
-            finalBuf.writeBytes(inputData, 2048 * columnCount);
-
-            // Skylight
-            if (skyLight) {
-                finalBuf.writeBytes(inputData, 2048 * columnCount);
-            }
-
-            if (groundUp && inputData.isReadable(256)) {
-                finalBuf.writeBytes(inputData, 256);
-            }
-
-            return Type.REMAINING_BYTES.read(finalBuf);
+            ChunkCompression.compress(data, compressedData);
+            byte[] result = new byte[compressedData.readableBytes()];
+            compressedData.readBytes(result);
+            return result;
         } finally {
-            finalBuf.release();
+            compressedData.release();
         }
     }
 
-    private static int calcSize(int i, boolean hasSkyLight, boolean hasBiome) {
-        int blocks = i * 2 * 16 * 16 * 16;
-        int blockLight = i * 16 * 16 * 16 / 2;
-        int skyLight = hasSkyLight ? i * 16 * 16 * 16 / 2 : 0;
-        int biome = hasBiome ? 256 : 0;
+    public static void transformChunk(PacketWrapper packetWrapper) throws Exception {
+        int chunkX = packetWrapper.passthrough(Type.INT);
+        int chunkZ = packetWrapper.passthrough(Type.INT);
+        boolean groundUp = packetWrapper.passthrough(Type.BOOLEAN);
+        int primaryBitMask = packetWrapper.read(Type.UNSIGNED_SHORT);
+        ByteBuf data = Unpooled.wrappedBuffer(packetWrapper.read(Type.BYTE_ARRAY_PRIMITIVE));
+
+        ClientWorld world = packetWrapper.user().get(ClientWorld.class);
+        boolean skyLight = world != null && world.getEnvironment() == Environment.NORMAL;
+
+        ChunkCache cache = ChunkCache.getInstance();
+        ChunkCache.Key key = cache != null ? cache.createKey(chunkX, chunkZ, primaryBitMask, groundUp, skyLight, data) : null;
+        byte[] compressedData = key != null ? cache.get(key) : null;
+
+        if (compressedData == null) {
+            int sectionCount = Integer.bitCount(primaryBitMask);
+            ByteBuf finalBuf = getAllocator(packetWrapper).heapBuffer(ChunkSectionEncoder.calcOutputSize(sectionCount, skyLight, groundUp));
+            try {
+                ChunkSectionEncoder.encode(data, finalBuf, primaryBitMask, skyLight, groundUp);
+                compressedData = compress(packetWrapper, finalBuf);
+            } finally {
+                finalBuf.release();
+            }
+            if (key != null) cache.put(key, compressedData);
+        }
 
-        return blocks + blockLight + skyLight + biome;
+        packetWrapper.write(Type.SHORT, (short) primaryBitMask);
+        packetWrapper.write(Type.SHORT, (short) 0);
+        packetWrapper.write(Type.INT, compressedData.length);
+        packetWrapper.write(new CustomByteType(compressedData.length), compressedData);
     }
 
     public static void transformChunkBulk(PacketWrapper packetWrapper) throws Exception {
@@ -116,34 +88,44 @@ public class ChunkPacketTransformer {
         int[] chunkX = new int[columnCount];
         int[] chunkZ = new int[columnCount];
         int[] primaryBitMask = new int[columnCount];
-        byte[][] data = new byte[columnCount][];
+        ByteBuf[] data = new ByteBuf[columnCount];
 
+        int outputSize = 0;
         for (int i = 0; i < columnCount; i++) {
             chunkX[i] = packetWrapper.read(Type.INT);
             chunkZ[i] = packetWrapper.read(Type.INT);
             primaryBitMask[i] = packetWrapper.read(Type.UNSIGNED_SHORT);
+            outputSize += ChunkSectionEncoder.calcOutputSize(Integer.bitCount(primaryBitMask[i]), skyLightSent, true);
         }
 
         for (int i = 0; i < columnCount; i++) {
-            int size = calcSize(Integer.bitCount(primaryBitMask[i]), skyLightSent, true);
-            CustomByteType customByteType = new CustomByteType(size);
-            data[i] = transformChunkData(packetWrapper.read(customByteType), primaryBitMask[i], skyLightSent, true);
+            int size = ChunkSectionEncoder.calcInputSize(Integer.bitCount(primaryBitMask[i]), skyLightSent, true);
+            data[i] = Unpooled.wrappedBuffer(packetWrapper.read(new CustomByteType(size)));
         }
 
-        ByteArrayOutputStream compressedData = new ByteArrayOutputStream();
-        // todo compression level config
-        try (DeflaterOutputStream deflaterStream = new DeflaterOutputStream(compressedData)) {
-            for (int i = 0; i < columnCount; ++i) {
-                deflaterStream.write(data[i]);
+        // Bulks are not cached, the same columns rarely arrive in the same combination twice
+        byte[] compressedData;
+        ByteBuf finalBuf = getAllocator(packetWrapper).heapBuffer(outputSize);
+        try {
+            ExecutorService executor = columnCount > 1 ? ParallelChunkEncoder.getExecutor() : null;
+            if (executor != null) {
+                ParallelChunkEncoder.encode(executor, data, finalBuf, primaryBitMask, skyLightSent);
+            } else {
+                for (int i = 0; i < columnCount; i++) {
+                    ChunkSectionEncoder.encode(data[i], finalBuf, primaryBitMask[i], skyLightSent, true);
+                }
             }
+            compressedData = compress(packetWrapper, finalBuf);
+        } finally {
+            finalBuf.release();
         }
 
         packetWrapper.write(Type.SHORT, (short) columnCount);
-        packetWrapper.write(Type.INT, compressedData.size());
+        packetWrapper.write(Type.INT, compressedData.length);
         packetWrapper.write(Type.BOOLEAN, skyLightSent);
 
-        CustomByteType customByteType = new CustomByteType(compressedData.size());
-        packetWrapper.write(customByteType, compressedData.toByteArray());
+        CustomByteType customByteType = new CustomByteType(compressedData.length);
+        packetWrapper.write(customByteType, compressedData);
 
         for (int i = 0; i < columnCount; i++) {
             packetWrapper.write(Type.INT, chunkX[i]);
@@ -152,4 +134,4 @@ public class ChunkPacketTransformer {
             packetWrapper.write(Type.SHORT, (short) 0);
         }
     }
-}
\ No newline at end of file
+}
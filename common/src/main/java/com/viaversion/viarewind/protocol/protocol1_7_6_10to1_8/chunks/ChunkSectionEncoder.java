@@ -0,0 +1,106 @@
+/*
+ * This file is part of ViaRewind - https://github.com/ViaVersion/ViaRewind
+ * Copyright (C) 2016-2023 ViaVersion and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.viaversion.viarewind.protocol.protocol1_7_6_10to1_8.chunks;
+
+import com.viaversion.viarewind.protocol.protocol1_7_6_10to1_8.items.ReplacementRegistry1_7_6_10to1_8;
+import io.netty.buffer.ByteBuf;
+
+/**
+ * Converts the raw 1.8 chunk column data into the 1.7 layout in a single pass.
+ * The 1.8 block states (little endian shorts) are read once per block and split into
+ * the 1.7 block id array and the packed metadata nibbles, light and biome data is copied as is.
+ */
+public class ChunkSectionEncoder {
+	public static final int BLOCKS_PER_SECTION = 4096;
+
+	/**
+	 * Calculates the size of a 1.8 chunk column
+	 *
+	 * @param sectionCount the amount of sent sections
+	 * @param skyLight     whether sky light is sent
+	 * @param biomes       whether biome data is sent
+	 * @return the size in bytes
+	 */
+	public static int calcInputSize(int sectionCount, boolean skyLight, boolean biomes) {
+		int blocks = sectionCount * BLOCKS_PER_SECTION * 2;
+		int blockLight = sectionCount * BLOCKS_PER_SECTION / 2;
+		int skyLightSize = skyLight ? sectionCount * BLOCKS_PER_SECTION / 2 : 0;
+		int biome = biomes ? 256 : 0;
+
+		return blocks + blockLight + skyLightSize + biome;
+	}
+
+	/**
+	 * Calculates the size of a 1.7 chunk column without the (always empty) add array
+	 *
+	 * @param sectionCount the amount of sent sections
+	 * @param skyLight     whether sky light is sent
+	 * @param biomes       whether biome data is sent
+	 * @return the size in bytes
+	 */
+	public static int calcOutputSize(int sectionCount, boolean skyLight, boolean biomes) {
+		int blocks = sectionCount * BLOCKS_PER_SECTION;
+		int metadata = sectionCount * BLOCKS_PER_SECTION / 2;
+		int blockLight = sectionCount * BLOCKS_PER_SECTION / 2;
+		int skyLightSize = skyLight ? sectionCount * BLOCKS_PER_SECTION / 2 : 0;
+		int biome = biomes ? 256 : 0;
+
+		return blocks + metadata + blockLight + skyLightSize + biome;
+	}
+
+	/**
+	 * Reads a 1.8 chunk column from the input and writes the 1.7 representation to the output
+	 *
+	 * @param input          the 1.8 column data
+	 * @param output         the buffer to write the 1.7 column data to
+	 * @param primaryBitMask the bitmask of the sent sections
+	 * @param skyLight       whether sky light is sent
+	 * @param groundUp       whether biome data may follow
+	 */
+	public static void encode(ByteBuf input, ByteBuf output, int primaryBitMask, boolean skyLight, boolean groundUp) {
+		int sectionCount = Integer.bitCount(primaryBitMask);
+		int blockCount = sectionCount * BLOCKS_PER_SECTION;
+
+		output.ensureWritable(blockCount + blockCount / 2);
+		int blockIndex = output.writerIndex();
+		int metaIndex = blockIndex + blockCount;
+
+		for (int i = 0; i < blockCount; i += 2) {
+			int block0 = ReplacementRegistry1_7_6_10to1_8.replace(Short.reverseBytes(input.readShort()) & 0xFFFF);
+			int block1 = ReplacementRegistry1_7_6_10to1_8.replace(Short.reverseBytes(input.readShort()) & 0xFFFF);
+
+			output.setByte(blockIndex++, block0 >> 4);
+			output.setByte(blockIndex++, block1 >> 4);
+			output.setByte(metaIndex++, (block1 & 0xF) << 4 | block0 & 0xF);
+		}
+		output.writerIndex(metaIndex);
+
+		// Block light
+		output.writeBytes(input, blockCount / 2);
+
+		// Skylight
+		if (skyLight) {
+			output.writeBytes(input, blockCount / 2);
+		}
+
+		if (groundUp && input.isReadable(256)) {
+			output.writeBytes(input, 256);
+		}
+	}
+}
@@ -0,0 +1,136 @@
+/*
+ * This file is part of ViaRewind - https://github.com/ViaVersion/ViaRewind
+ * Copyright (C) 2016-2023 ViaVersion and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.viaversion.viarewind.protocol.protocol1_7_6_10to1_8.chunks;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.common.util.concurrent.Uninterruptibles;
+import com.viaversion.viarewind.ViaRewind;
+import io.netty.buffer.ByteBuf;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Converts the columns of a chunk bulk packet on a fixed pool of worker threads.
+ * Every column is written into its own slice of the output buffer, so the result keeps the column order
+ * and the calling thread only waits until all columns are done.
+ */
+public class ParallelChunkEncoder {
+	private static volatile ExecutorService executor;
+	private static volatile boolean initialized;
+
+	/**
+	 * @return the worker pool or null if parallel conversion is disabled in the config
+	 */
+	public static ExecutorService getExecutor() {
+		if (!initialized) {
+			synchronized (ParallelChunkEncoder.class) {
+				if (!initialized) {
+					int threads = ViaRewind.getConfig().getChunkConversionThreads();
+					if (threads > 0) {
+						executor = Executors.newFixedThreadPool(threads, new ThreadFactoryBuilder()
+								.setNameFormat("ViaRewind Chunk Conversion #%d")
+								.setDaemon(true)
+								.build());
+					}
+					initialized = true;
+				}
+			}
+		}
+		return executor;
+	}
+
+	/**
+	 * Stops the worker pool once the queued columns are converted. Bulks are converted on the calling thread afterwards.
+	 */
+	public static synchronized void shutdown() {
+		if (executor != null) {
+			executor.shutdown();
+			executor = null;
+		}
+		initialized = true;
+	}
+
+	/**
+	 * Converts the 1.8 bulk columns into the 1.7 layout and appends them to the output in their original order
+	 *
+	 * @param executor       the worker pool
+	 * @param data           the 1.8 column data
+	 * @param output         the buffer to write the 1.7 column data to
+	 * @param primaryBitMask the bitmasks of the sent sections
+	 * @param skyLight       whether sky light is sent
+	 */
+	public static void encode(ExecutorService executor, ByteBuf[] data, ByteBuf output, int[] primaryBitMask, boolean skyLight) throws Exception {
+		int[] sizes = new int[data.length];
+		int totalSize = 0;
+		for (int i = 0; i < data.length; i++) {
+			sizes[i] = ChunkSectionEncoder.calcOutputSize(Integer.bitCount(primaryBitMask[i]), skyLight, true);
+			totalSize += sizes[i];
+		}
+		// Growing the buffer would move it away from the slices the workers write to, so it's only done up front
+		output.ensureWritable(totalSize);
+
+		ByteBuf[] slices = new ByteBuf[data.length];
+		Future<?>[] futures = new Future[data.length];
+		int offset = output.writerIndex();
+		for (int i = 0; i < data.length; i++) {
+			ByteBuf slice = slices[i] = output.slice(offset, sizes[i]).clear();
+			offset += sizes[i];
+
+			if (i == data.length - 1) break; // The calling thread converts the last column itself
+
+			ByteBuf input = data[i];
+			int bitMask = primaryBitMask[i];
+			try {
+				futures[i] = executor.submit(() -> ChunkSectionEncoder.encode(input, slice, bitMask, skyLight, true));
+			} catch (RejectedExecutionException ignored) {
+				// The pool was shut down, the column is converted below instead
+			}
+		}
+
+		Exception exception = null;
+		try {
+			for (int i = 0; i < data.length; i++) {
+				if (futures[i] == null) {
+					ChunkSectionEncoder.encode(data[i], slices[i], primaryBitMask[i], skyLight, true);
+				}
+			}
+		} catch (Exception e) {
+			exception = e;
+		}
+
+		// Always wait for every worker, even if interrupted, the output buffer must not be released while they are still writing
+		for (Future<?> future : futures) {
+			if (future == null) continue;
+			try {
+				Uninterruptibles.getUninterruptibly(future);
+			} catch (ExecutionException e) {
+				if (exception == null) {
+					exception = e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+				}
+			}
+		}
+		if (exception != null) throw exception;
+
+		output.writerIndex(offset);
+	}
+}
@@ -18,7 +18,10 @@
 
 package com.viaversion.viarewind.protocol.protocol1_7_6_10to1_8.entityreplacements;
 
+import com.viaversion.viarewind.ViaRewind;
 import com.viaversion.viarewind.protocol.protocol1_7_6_10to1_8.metadata.MetadataRewriter;
+import com.viaversion.viarewind.protocol.protocol1_7_6_10to1_8.storage.PlayerPosition;
+import com.viaversion.viarewind.replacement.DataWatcher;
 import com.viaversion.viarewind.utils.PacketUtil;
 import com.viaversion.viarewind.utils.math.AABB;
 import com.viaversion.viarewind.utils.math.Vector3d;
@@ -38,7 +41,7 @@ import java.util.List;
 
 public class ArmorStandReplacement extends EntityReplacement1_7to1_8 {
 	private final int entityId;
-	private final List<Metadata> datawatcher = new ArrayList<>();
+	private final DataWatcher datawatcher = new DataWatcher();
 	private int[] entityIds = null;
 	private double locX, locY, locZ;
 	private State currentState = null;
@@ -68,7 +71,7 @@ public class ArmorStandReplacement extends EntityReplacement1_7to1_8 {
 			this.locX = x;
 			this.locY = y;
 			this.locZ = z;
-			updateLocation(false);
+			scheduleLocationUpdate();
 		}
 	}
 
@@ -77,48 +80,40 @@ public class ArmorStandReplacement extends EntityReplacement1_7to1_8 {
 		this.locX += x;
 		this.locY += y;
 		this.locZ += z;
-		updateLocation(false);
+		scheduleLocationUpdate();
 	}
 
 	public void setYawPitch(float yaw, float pitch) {
-		if (this.yaw != yaw && this.pitch != pitch || this.headYaw != yaw) {
+		if (this.yaw != yaw || this.pitch != pitch || this.headYaw != yaw) {
 			this.yaw = yaw;
 			this.headYaw = yaw;
 			this.pitch = pitch;
-			updateLocation(false);
+			scheduleLocationUpdate();
 		}
 	}
 
 	public void setHeadYaw(float yaw) {
 		if (this.headYaw != yaw) {
 			this.headYaw = yaw;
-			updateLocation(false);
+			scheduleLocationUpdate();
 		}
 	}
 
 	public void updateMetadata(List<Metadata> metadataList) {
-		for (Metadata metadata : metadataList) {
-			datawatcher.removeIf(m -> m.id() == metadata.id());
-			datawatcher.add(metadata);
+		if (datawatcher.update(metadataList)) {
+			updateState();
 		}
-		updateState();
 	}
 
 	public void updateState() {
-		byte flags = 0;
-		byte armorStandFlags = 0;
-		for (Metadata metadata : datawatcher) {
-			if (metadata.id() == 0 && metadata.metaType() == MetaType1_8.Byte) {
-				flags = ((Number) metadata.getValue()).byteValue();
-			} else if (metadata.id() == 2 && metadata.metaType() == MetaType1_8.String) {
-				name = metadata.getValue().toString();
-				if (name != null && name.equals("")) name = null;
-			} else if (metadata.id() == 10 && metadata.metaType() == MetaType1_8.Byte) {
-				armorStandFlags = ((Number) metadata.getValue()).byteValue();
-			} else if (metadata.id() == 3 && metadata.metaType() == MetaType1_8.Byte) {
-				nameTagVisible = ((Number) metadata.getValue()).byteValue() != 0;
-			}
+		byte flags = getByte(0);
+		byte armorStandFlags = getByte(10);
+		Metadata nameMetadata = datawatcher.get(2);
+		if (nameMetadata != null && nameMetadata.metaType() == MetaType1_8.String) {
+			name = nameMetadata.getValue().toString();
+			if (name.equals("")) name = null;
 		}
+		nameTagVisible = getByte(3) != 0;
 		invisible = (flags & 0x20) != 0;
 		small = (armorStandFlags & 0x01) != 0;
 		marker = (armorStandFlags & 0x10) != 0;
@@ -134,9 +129,51 @@ public class ArmorStandReplacement extends EntityReplacement1_7to1_8 {
 			despawn();
 			spawn();
 		} else {
-			updateMetadata();
-			updateLocation(false);
+			sendMetadata(true);
+			// The size flags move the hologram
+			if (datawatcher.isDirty(10)) updateLocation(false);
+		}
+		datawatcher.clearDirty();
+	}
+
+	private byte getByte(int id) {
+		Metadata metadata = datawatcher.get(id);
+		if (metadata == null || metadata.metaType() != MetaType1_8.Byte) return 0;
+		return ((Number) metadata.getValue()).byteValue();
+	}
+
+	public void updateLocation() {
+		if (updateVisibility()) return;
+		updateLocation(false);
+	}
+
+	/**
+	 * Spawns or despawns the replacement, depending on whether it is within the hologram view distance of the player
+	 *
+	 * @return true if the replacement was spawned or despawned
+	 */
+	public boolean updateVisibility() {
+		if (currentState == null) return false;
+		boolean inViewDistance = isInViewDistance();
+		if (inViewDistance && entityIds == null) {
+			spawn();
+			return true;
+		} else if (!inViewDistance && entityIds != null) {
+			despawn();
+			return true;
 		}
+		return false;
+	}
+
+	private boolean isInViewDistance() {
+		int viewDistance = ViaRewind.getConfig().getHologramViewDistance();
+		if (viewDistance <= 0) return true;
+		PlayerPosition position = user.get(PlayerPosition.class);
+		if (position == null) return true;
+		double dx = position.getPosX() - locX;
+		double dy = position.getPosY() - locY;
+		double dz = position.getPosZ() - locZ;
+		return dx * dx + dy * dy + dz * dz <= (double) viewDistance * viewDistance;
 	}
 
 	public void updateLocation(boolean remount) {
@@ -150,7 +187,7 @@ public class ArmorStandReplacement extends EntityReplacement1_7to1_8 {
 	}
 
 	private void updateZombieLocation() {
-		sendTeleportWithHead(entityId, locX, locY, locZ, yaw, pitch, headYaw);
+		sendMovementWithHead(entityId, locX, locY, locZ, yaw, pitch, headYaw);
 	}
 
 	private void updateHologramLocation(boolean remount) {
@@ -163,7 +200,7 @@ public class ArmorStandReplacement extends EntityReplacement1_7to1_8 {
 		}
 
 		// Don't ask me where this offset is coming from
-		sendTeleport(entityIds[0], locX, (locY + (marker ? 54.85 : small ? 56 : 57)), locZ, 0, 0); // Skull
+		sendMovement(entityIds[0], locX, (locY + (marker ? 54.85 : small ? 56 : 57)), locZ, 0, 0); // Skull
 
 		if(remount) {
 			sendTeleport(entityIds[1], locX, locY + 56.75, locZ, 0, 0); // Horse
@@ -177,13 +214,21 @@ public class ArmorStandReplacement extends EntityReplacement1_7to1_8 {
 	}
 
 	public void updateMetadata() {
+		sendMetadata(false);
+	}
+
+	/**
+	 * @param changedOnly only send the entries which changed since the last update, nothing is sent if there are none
+	 */
+	private void sendMetadata(boolean changedOnly) {
 		if (entityIds == null) return;
 
 		PacketWrapper metadataPacket = PacketWrapper.create(ClientboundPackets1_7.ENTITY_METADATA, null, user);
 
 		if (currentState == State.ZOMBIE) {
-			writeZombieMeta(metadataPacket);
+			if (!writeZombieMeta(metadataPacket, changedOnly)) return;
 		} else if (currentState == State.HOLOGRAM) {
+			if (changedOnly && !datawatcher.isDirty(2)) return;
 			writeHologramMeta(metadataPacket);
 		} else {
 			return;
@@ -192,18 +237,19 @@ public class ArmorStandReplacement extends EntityReplacement1_7to1_8 {
 		PacketUtil.sendPacket(metadataPacket, Protocol1_7_6_10To1_8.class, true, true);
 	}
 
-	private void writeZombieMeta(PacketWrapper metadataPacket) {
+	private boolean writeZombieMeta(PacketWrapper metadataPacket, boolean changedOnly) {
 		metadataPacket.write(Type.INT, entityIds[0]);
 
-		List<Metadata> metadataList = new ArrayList<>();
-		for (Metadata metadata : datawatcher) {
-			if (metadata.id() < 0 || metadata.id() > 9) continue;
-			metadataList.add(new Metadata(metadata.id(), metadata.metaType(), metadata.getValue()));
+		List<Metadata> metadataList = changedOnly ? datawatcher.copyDirty() : datawatcher.copyAll();
+		metadataList.removeIf(metadata -> metadata.id() > 9);
+		if (small && (!changedOnly || datawatcher.isDirty(10))) {
+			metadataList.add(new Metadata(12, MetaType1_8.Byte, (byte) 1));
 		}
-		if (small) metadataList.add(new Metadata(12, MetaType1_8.Byte, (byte) 1));
 		MetadataRewriter.transform(Entity1_10Types.EntityType.ZOMBIE, metadataList);
+		if (changedOnly && metadataList.isEmpty()) return false;
 
 		metadataPacket.write(Types1_7_6_10.METADATA_LIST, metadataList);
+		return true;
 	}
 
 	private void writeHologramMeta(PacketWrapper metadataPacket) {
@@ -219,6 +265,7 @@ public class ArmorStandReplacement extends EntityReplacement1_7to1_8 {
 
 	public void spawn() {
 		if (entityIds != null) despawn();
+		if (!isInViewDistance()) return;
 
 		if (currentState == State.ZOMBIE) {
 			spawnZombie();
@@ -274,6 +321,9 @@ public class ArmorStandReplacement extends EntityReplacement1_7to1_8 {
 		for (int id : entityIds) {
 			despawn.write(Type.INT, id);
 		}
+		for (int id : entityIds) {
+			resetLocation(id);
+		}
 		entityIds = null;
 		PacketUtil.sendPacket(despawn, Protocol1_7_6_10To1_8.class, true, true);
 	}
@@ -22,41 +22,142 @@ import com.viaversion.viarewind.replacement.EntityReplacement;
 import com.viaversion.viarewind.utils.PacketUtil;
 import com.viaversion.viarewind.protocol.protocol1_7_6_10to1_8.ClientboundPackets1_7;
 import com.viaversion.viarewind.protocol.protocol1_7_6_10to1_8.Protocol1_7_6_10To1_8;
+import com.viaversion.viarewind.protocol.protocol1_7_6_10to1_8.storage.EntityTracker;
 import com.viaversion.viaversion.api.connection.UserConnection;
 import com.viaversion.viaversion.api.protocol.packet.PacketWrapper;
 import com.viaversion.viaversion.api.type.Type;
+import com.viaversion.viaversion.libs.fastutil.ints.Int2ObjectMap;
+import com.viaversion.viaversion.libs.fastutil.ints.Int2ObjectOpenHashMap;
 import com.viaversion.viarewind.protocol.protocol1_7_6_10to1_8.types.Types1_7_6_10;
 
 import java.util.ArrayList;
 
 public abstract class EntityReplacement1_7to1_8 implements EntityReplacement {
 	protected final UserConnection user;
+	private final Int2ObjectMap<SentLocation> sentLocations = new Int2ObjectOpenHashMap<>();
+	private boolean locationUpdateScheduled = false;
 
 	public EntityReplacement1_7to1_8(UserConnection user) {
 		this.user = user;
 	}
 
-	protected void sendTeleportWithHead(int entityId, double locX, double locY, double locZ, float yaw, float pitch, float headYaw) {
-		sendTeleport(entityId, locX, locY, locZ, yaw, pitch);
+	/**
+	 * Sends the current location of all entities of this replacement to the client
+	 */
+	public abstract void updateLocation();
+
+	/**
+	 * Collects location changes until the next tick, so they are sent in one go
+	 */
+	protected void scheduleLocationUpdate() {
+		if (locationUpdateScheduled) return;
+		locationUpdateScheduled = true;
+		user.get(EntityTracker.class).scheduleLocationUpdate(this);
+	}
+
+	public void flushLocationUpdate() {
+		if (!locationUpdateScheduled) return;
+		locationUpdateScheduled = false;
+		updateLocation();
+	}
+
+	/**
+	 * Forgets the location the client knows for an entity, so the next movement is sent as teleport
+	 */
+	protected void resetLocation(int entityId) {
+		sentLocations.remove(entityId);
+	}
+
+	protected void sendMovementWithHead(int entityId, double locX, double locY, double locZ, float yaw, float pitch, float headYaw) {
+		sendMovement(entityId, locX, locY, locZ, yaw, pitch);
+		SentLocation sent = sentLocations.get(entityId);
+		byte headYawByte = (byte) ((headYaw / 360f) * 256);
+		if (sent != null && sent.headYawSent && sent.headYaw == headYawByte) return;
 		sendHeadYaw(entityId, headYaw);
 	}
 
+	/**
+	 * Sends the difference to the location the client knows as relative move or rotation, if it fits into one.
+	 * Falls back to a teleport otherwise and sends nothing if nothing changed.
+	 */
+	protected void sendMovement(int entityId, double locX, double locY, double locZ, float yaw, float pitch) {
+		SentLocation sent = sentLocations.get(entityId);
+		if (sent == null) {
+			sendTeleport(entityId, locX, locY, locZ, yaw, pitch);
+			return;
+		}
+		int x = (int) (locX * 32.0);
+		int y = (int) (locY * 32.0);
+		int z = (int) (locZ * 32.0);
+		byte yawByte = (byte) ((yaw / 360f) * 256);
+		byte pitchByte = (byte) ((pitch / 360f) * 256);
+		int dx = x - sent.x;
+		int dy = y - sent.y;
+		int dz = z - sent.z;
+		boolean moved = dx != 0 || dy != 0 || dz != 0;
+		boolean rotated = yawByte != sent.yaw || pitchByte != sent.pitch;
+		if (!moved && !rotated) return;
+		if (!fitsByte(dx) || !fitsByte(dy) || !fitsByte(dz)) {
+			sendTeleport(entityId, locX, locY, locZ, yaw, pitch);
+			return;
+		}
+
+		PacketWrapper movement;
+		if (moved && rotated) {
+			movement = PacketWrapper.create(ClientboundPackets1_7.ENTITY_POSITION_AND_ROTATION, null, user);
+		} else if (moved) {
+			movement = PacketWrapper.create(ClientboundPackets1_7.ENTITY_POSITION, null, user);
+		} else {
+			movement = PacketWrapper.create(ClientboundPackets1_7.ENTITY_ROTATION, null, user);
+		}
+		movement.write(Type.INT, entityId);
+		if (moved) {
+			movement.write(Type.BYTE, (byte) dx);
+			movement.write(Type.BYTE, (byte) dy);
+			movement.write(Type.BYTE, (byte) dz);
+		}
+		if (rotated) {
+			movement.write(Type.BYTE, yawByte);
+			movement.write(Type.BYTE, pitchByte);
+		}
+		sent.set(x, y, z, yawByte, pitchByte);
+
+		PacketUtil.sendPacket(movement, Protocol1_7_6_10To1_8.class, true, true);
+	}
+
+	private static boolean fitsByte(int delta) {
+		return delta >= Byte.MIN_VALUE && delta <= Byte.MAX_VALUE;
+	}
+
 	protected void sendTeleport(int entityId, double locX, double locY, double locZ, float yaw, float pitch) {
+		int x = (int) (locX * 32.0);
+		int y = (int) (locY * 32.0);
+		int z = (int) (locZ * 32.0);
+		byte yawByte = (byte) ((yaw / 360f) * 256);
+		byte pitchByte = (byte) ((pitch / 360f) * 256);
+
 		PacketWrapper teleport = PacketWrapper.create(ClientboundPackets1_7.ENTITY_TELEPORT, null, user);
 		teleport.write(Type.INT, entityId);
-		teleport.write(Type.INT, (int) (locX * 32.0));
-		teleport.write(Type.INT, (int) (locY * 32.0));
-		teleport.write(Type.INT, (int) (locZ * 32.0));
-		teleport.write(Type.BYTE, (byte) ((yaw / 360f) * 256));
-		teleport.write(Type.BYTE, (byte) ((pitch / 360f) * 256));
+		teleport.write(Type.INT, x);
+		teleport.write(Type.INT, y);
+		teleport.write(Type.INT, z);
+		teleport.write(Type.BYTE, yawByte);
+		teleport.write(Type.BYTE, pitchByte);
+		sentLocations.computeIfAbsent(entityId, id -> new SentLocation()).set(x, y, z, yawByte, pitchByte);
 
 		PacketUtil.sendPacket(teleport, Protocol1_7_6_10To1_8.class, true, true);
 	}
 
 	protected void sendHeadYaw(int entityId, float headYaw) {
+		byte headYawByte = (byte) ((headYaw / 360f) * 256);
 		PacketWrapper head = PacketWrapper.create(ClientboundPackets1_7.ENTITY_HEAD_LOOK, null, user);
 		head.write(Type.INT, entityId);
-		head.write(Type.BYTE, (byte) ((headYaw / 360f) * 256));
+		head.write(Type.BYTE, headYawByte);
+		SentLocation sent = sentLocations.get(entityId);
+		if (sent != null) {
+			sent.headYaw = headYawByte;
+			sent.headYawSent = true;
+		}
 		PacketUtil.sendPacket(head, Protocol1_7_6_10To1_8.class, true, true);
 	}
 
@@ -74,7 +175,28 @@ public abstract class EntityReplacement1_7to1_8 implements EntityReplacement {
 		spawn.write(Type.SHORT, (short) 0);
 		spawn.write(Type.SHORT, (short) 0);
 		spawn.write(Types1_7_6_10.METADATA_LIST, new ArrayList<>());
+		SentLocation sent = new SentLocation();
+		sent.set((int) (locX * 32.0), (int) (locY * 32.0), (int) (locZ * 32.0), (byte) 0, (byte) 0);
+		sentLocations.put(entityId, sent);
 
 		PacketUtil.sendPacket(spawn, Protocol1_7_6_10To1_8.class, true, true);
 	}
+
+	/**
+	 * The location of an entity as the client knows it, in the fixed point format of the protocol
+	 */
+	private static final class SentLocation {
+		private int x, y, z;
+		private byte yaw, pitch;
+		private byte headYaw;
+		private boolean headYawSent;
+
+		private void set(int x, int y, int z, byte yaw, byte pitch) {
+			this.x = x;
+			this.y = y;
+			this.z = z;
+			this.yaw = yaw;
+			this.pitch = pitch;
+		}
+	}
 }
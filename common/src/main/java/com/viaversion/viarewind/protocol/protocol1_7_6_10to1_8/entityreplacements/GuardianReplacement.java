@@ -19,6 +19,7 @@
 package com.viaversion.viarewind.protocol.protocol1_7_6_10to1_8.entityreplacements;
 
 import com.viaversion.viarewind.protocol.protocol1_7_6_10to1_8.metadata.MetadataRewriter;
+import com.viaversion.viarewind.replacement.DataWatcher;
 import com.viaversion.viarewind.utils.PacketUtil;
 import com.viaversion.viaversion.api.connection.UserConnection;
 import com.viaversion.viaversion.api.minecraft.entities.Entity1_10Types;
@@ -29,12 +30,11 @@ import com.viaversion.viarewind.protocol.protocol1_7_6_10to1_8.ClientboundPacket
 import com.viaversion.viarewind.protocol.protocol1_7_6_10to1_8.Protocol1_7_6_10To1_8;
 import com.viaversion.viarewind.protocol.protocol1_7_6_10to1_8.types.Types1_7_6_10;
 
-import java.util.ArrayList;
 import java.util.List;
 
 public class GuardianReplacement extends EntityReplacement1_7to1_8 {
 	private final int entityId;
-	private final List<Metadata> datawatcher = new ArrayList<>();
+	private final DataWatcher datawatcher = new DataWatcher();
 	private double locX, locY, locZ;
 	private float yaw, pitch;
 	private float headYaw;
@@ -46,58 +46,57 @@ public class GuardianReplacement extends EntityReplacement1_7to1_8 {
 	}
 
 	public void setLocation(double x, double y, double z) {
-		this.locX = x;
-		this.locY = y;
-		this.locZ = z;
-		updateLocation();
+		if (x != this.locX || y != this.locY || z != this.locZ) {
+			this.locX = x;
+			this.locY = y;
+			this.locZ = z;
+			scheduleLocationUpdate();
+		}
 	}
 
 	public void relMove(double x, double y, double z) {
+		if (x == 0.0 && y == 0.0 && z == 0.0) return;
 		this.locX += x;
 		this.locY += y;
 		this.locZ += z;
-		updateLocation();
+		scheduleLocationUpdate();
 	}
 
 	public void setYawPitch(float yaw, float pitch) {
 		if (this.yaw != yaw || this.pitch != pitch) {
 			this.yaw = yaw;
 			this.pitch = pitch;
-			updateLocation();
+			scheduleLocationUpdate();
 		}
 	}
 
 	public void setHeadYaw(float yaw) {
 		if (this.headYaw != yaw) {
 			this.headYaw = yaw;
-			updateLocation();
+			scheduleLocationUpdate();
 		}
 	}
 
 	public void updateMetadata(List<Metadata> metadataList) {
-		for (Metadata metadata : metadataList) {
-			datawatcher.removeIf(m -> m.id() == metadata.id());
-			datawatcher.add(metadata);
+		if (datawatcher.update(metadataList)) {
+			updateMetadata();
 		}
-		updateMetadata();
 	}
 
 	public void updateLocation() {
-		sendTeleportWithHead(entityId, locX, locY, locZ, yaw, pitch, headYaw);
+		sendMovementWithHead(entityId, locX, locY, locZ, yaw, pitch, headYaw);
 	}
 
 	public void updateMetadata() {
-		PacketWrapper metadataPacket = PacketWrapper.create(ClientboundPackets1_7.ENTITY_METADATA, null, user);
-		metadataPacket.write(Type.INT, entityId);
-
-		List<Metadata> metadataList = new ArrayList<>();
-		for (Metadata metadata : datawatcher) {
-			if (metadata.id() == 16 || metadata.id() == 17) continue;
-			metadataList.add(new Metadata(metadata.id(), metadata.metaType(), metadata.getValue()));
-		}
+		List<Metadata> metadataList = datawatcher.copyDirty();
+		datawatcher.clearDirty();
+		metadataList.removeIf(metadata -> metadata.id() == 16 || metadata.id() == 17);
 
 		MetadataRewriter.transform(Entity1_10Types.EntityType.SQUID, metadataList);
+		if (metadataList.isEmpty()) return;
 
+		PacketWrapper metadataPacket = PacketWrapper.create(ClientboundPackets1_7.ENTITY_METADATA, null, user);
+		metadataPacket.write(Type.INT, entityId);
 		metadataPacket.write(Types1_7_6_10.METADATA_LIST, metadataList);
 
 		PacketUtil.sendPacket(metadataPacket, Protocol1_7_6_10To1_8.class);
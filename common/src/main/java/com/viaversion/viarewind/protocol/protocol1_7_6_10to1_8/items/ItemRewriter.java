@@ -20,6 +20,7 @@ package com.viaversion.viarewind.protocol.protocol1_7_6_10to1_8.items;
 
 import com.viaversion.viarewind.utils.ChatUtil;
 import com.viaversion.viarewind.utils.Enchantments;
+import com.viaversion.viarewind.utils.ItemCache;
 import com.viaversion.viaversion.api.minecraft.item.Item;
 import com.viaversion.viaversion.libs.opennbt.tag.builtin.*;
 
@@ -27,8 +28,13 @@ import java.util.ArrayList;
 import java.util.List;
 
 public class ItemRewriter {
+	private static final ItemCache CACHE = new ItemCache(ItemRewriter::translateToClient);
 
 	public static Item toClient(Item item) {
+		return CACHE.translate(item);
+	}
+
+	private static Item translateToClient(Item item) {
 		if (item==null) return null;
 
 		CompoundTag tag = item.tag();
@@ -25,6 +25,7 @@ import com.viaversion.viarewind.replacement.ReplacementRegistry;
 
 public class ReplacementRegistry1_7_6_10to1_8 {
 	private static final ReplacementRegistry registry = new ReplacementRegistry();
+	private static final char[] blockStates;
 
 	static {
 		registry.registerBlock(176, new Replacement(63));
@@ -104,6 +105,8 @@ public class ReplacementRegistry1_7_6_10to1_8 {
 		registry.registerItemBlock(430, new Replacement(324, "Dark Oak Door"));
 		registry.registerItemBlock(431, new Replacement(324, "Acacia Door"));
 		registry.registerItemBlock(157, new Replacement(28, "Activator Rail"));
+
+		blockStates = registry.createBlockStateTable();
 	}
 
 	public static Item replace(Item item) {
@@ -111,6 +114,8 @@ public class ReplacementRegistry1_7_6_10to1_8 {
 	}
 
 	public static int replace(int raw) {
+		if (raw >= 0 && raw < blockStates.length) return blockStates[raw];
+
 		int data = BlockState.extractData(raw);
 		Replacement replace = registry.replace(BlockState.extractId(raw), data);
 		return replace != null ? BlockState.stateToRaw(replace.getId(), replace.replaceData(data)) : raw;
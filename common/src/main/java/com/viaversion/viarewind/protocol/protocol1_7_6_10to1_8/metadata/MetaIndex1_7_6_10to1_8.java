@@ -20,41 +20,45 @@ package com.viaversion.viarewind.protocol.protocol1_7_6_10to1_8.metadata;
 
 import com.viaversion.viarewind.protocol.protocol1_8to1_7_6_10.metadata.MetaIndex1_8To1_7_6_10;
 import com.viaversion.viaversion.api.minecraft.entities.Entity1_10Types;
-import com.viaversion.viaversion.util.Pair;
 
-import java.util.HashMap;
-import java.util.Optional;
+import java.util.ArrayList;
+import java.util.List;
 
 public class MetaIndex1_7_6_10to1_8 {
 
-	private static final HashMap<Pair<Entity1_10Types.EntityType, Integer>, MetaIndex1_8To1_7_6_10> metadataRewrites = new HashMap<>();
+	/**
+	 * The rewrite of every metadata index per entity type, inherited rewrites of parent types are already resolved
+	 */
+	private static final MetaIndex1_8To1_7_6_10[][] metadataRewrites = new MetaIndex1_8To1_7_6_10[Entity1_10Types.EntityType.values().length][];
 
 	static {
-		for (MetaIndex1_8To1_7_6_10 index : MetaIndex1_8To1_7_6_10.values())
-			metadataRewrites.put(new Pair<>(index.getClazz(), index.getNewIndex()), index);
-	}
-
-	private static Optional<MetaIndex1_8To1_7_6_10> getIndex(Entity1_10Types.EntityType type, int index) {
-		Pair pair = new Pair<>(type, index);
-		if (metadataRewrites.containsKey(pair)) {
-			return Optional.of(metadataRewrites.get(pair));
+		int maxIndex = 0;
+		for (MetaIndex1_8To1_7_6_10 index : MetaIndex1_8To1_7_6_10.values()) {
+			maxIndex = Math.max(maxIndex, index.getNewIndex());
 		}
 
-		return Optional.empty();
-	}
-
-	public static MetaIndex1_8To1_7_6_10 searchIndex(Entity1_10Types.EntityType type, int index) {
-		Entity1_10Types.EntityType currentType = type;
-		do {
-			Optional<MetaIndex1_8To1_7_6_10> optMeta = getIndex(currentType, index);
-
-			if (optMeta.isPresent()) {
-				return optMeta.get();
+		for (Entity1_10Types.EntityType type : Entity1_10Types.EntityType.values()) {
+			List<Entity1_10Types.EntityType> hierarchy = new ArrayList<>();
+			for (Entity1_10Types.EntityType currentType = type; currentType != null; currentType = currentType.getParent()) {
+				hierarchy.add(currentType);
 			}
 
-			currentType = currentType.getParent();
-		} while (currentType != null);
+			MetaIndex1_8To1_7_6_10[] rewrites = new MetaIndex1_8To1_7_6_10[maxIndex + 1];
+			// Walk down from the root type, so the most specific type wins
+			for (int i = hierarchy.size() - 1; i >= 0; i--) {
+				for (MetaIndex1_8To1_7_6_10 index : MetaIndex1_8To1_7_6_10.values()) {
+					if (index.getClazz() == hierarchy.get(i)) {
+						rewrites[index.getNewIndex()] = index;
+					}
+				}
+			}
+			metadataRewrites[type.ordinal()] = rewrites;
+		}
+	}
 
-		return null;
+	public static MetaIndex1_8To1_7_6_10 searchIndex(Entity1_10Types.EntityType type, int index) {
+		if (type == null) return null;
+		MetaIndex1_8To1_7_6_10[] rewrites = metadataRewrites[type.ordinal()];
+		return index >= 0 && index < rewrites.length ? rewrites[index] : null;
 	}
 }
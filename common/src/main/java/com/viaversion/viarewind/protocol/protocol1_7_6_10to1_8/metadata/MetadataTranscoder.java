@@ -0,0 +1,147 @@
+/*
+ * This file is part of ViaRewind - https://github.com/ViaVersion/ViaRewind
+ * Copyright (C) 2016-2023 ViaVersion and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.viaversion.viarewind.protocol.protocol1_7_6_10to1_8.metadata;
+
+import com.viaversion.viarewind.protocol.protocol1_7_6_10to1_8.items.ItemRewriter;
+import com.viaversion.viarewind.protocol.protocol1_7_6_10to1_8.types.MetaType1_7_6_10;
+import com.viaversion.viarewind.protocol.protocol1_8to1_7_6_10.metadata.MetaIndex1_8To1_7_6_10;
+import com.viaversion.viaversion.api.minecraft.entities.Entity1_10Types;
+import com.viaversion.viaversion.api.minecraft.item.Item;
+import com.viaversion.viaversion.api.minecraft.metadata.types.MetaType1_8;
+import com.viaversion.viaversion.api.type.Type;
+import io.netty.buffer.ByteBuf;
+
+/**
+ * Reads a 1.8 metadata list and rewrites it straight into the 1.7 encoding, following the rules of {@link MetadataRewriter}.
+ * Entries of the common types are copied and converted byte by byte, only items are read into objects.
+ * The output only receives the rewritten entries and their end marker, nothing is written if no entry is left.
+ */
+public class MetadataTranscoder {
+
+	/**
+	 * @param entityType the type of the entity the metadata belongs to
+	 * @param input      the 1.8 metadata list
+	 * @param output     the buffer to write the 1.7 metadata list to
+	 * @return false if no entry is left, nothing is written to the output in that case
+	 */
+	public static boolean transcode(Entity1_10Types.EntityType entityType, ByteBuf input, ByteBuf output) throws Exception {
+		int startIndex = output.writerIndex();
+		int count = 0;
+		byte key;
+		while ((key = input.readByte()) != 127) {
+			MetaType1_8 newType = MetaType1_8.byId((key & 224) >> 5);
+			MetaIndex1_8To1_7_6_10 metaIndex = MetaIndex1_7_6_10to1_8.searchIndex(entityType, key & 31);
+			if (metaIndex == null || metaIndex.getOldType() == MetaType1_7_6_10.NonExistent || metaIndex.getNewType() != newType) {
+				skip(input, newType);
+				continue;
+			}
+
+			int keyIndex = output.writerIndex();
+			output.writeByte((metaIndex.getOldType().typeId() << 5 | metaIndex.getIndex() & 31) & 255);
+			if (transcodeValue(input, output, metaIndex, newType)) {
+				count++;
+			} else {
+				output.writerIndex(keyIndex);
+			}
+		}
+		if (count == 0) {
+			output.writerIndex(startIndex);
+			return false;
+		}
+		output.writeByte(127);
+		return true;
+	}
+
+	/**
+	 * @return false if the value was skipped because the entry has to be removed
+	 */
+	private static boolean transcodeValue(ByteBuf input, ByteBuf output, MetaIndex1_8To1_7_6_10 metaIndex, MetaType1_8 newType) throws Exception {
+		switch (metaIndex.getOldType()) {
+			case Int:
+				if (newType == MetaType1_8.Byte) {
+					output.writeInt(MetadataRewriter.rewriteInt(metaIndex, input.readByte()));
+				} else if (newType == MetaType1_8.Short) {
+					output.writeInt(MetadataRewriter.rewriteInt(metaIndex, input.readShort()));
+				} else if (newType == MetaType1_8.Int) {
+					output.writeInt(MetadataRewriter.rewriteInt(metaIndex, input.readInt()));
+				} else {
+					skip(input, newType);
+					return false;
+				}
+				return true;
+			case Byte:
+				if (newType == MetaType1_8.Int) {
+					output.writeByte(MetadataRewriter.rewriteByte(metaIndex, (byte) input.readInt()));
+				} else if (newType == MetaType1_8.Byte) {
+					output.writeByte(MetadataRewriter.rewriteByte(metaIndex, input.readByte()));
+				} else {
+					skip(input, newType);
+					return false;
+				}
+				return true;
+			case Short:
+				output.writeShort(input.readShort());
+				return true;
+			case Float:
+				output.writeFloat(input.readFloat());
+				return true;
+			case String:
+				// Both versions prefix strings with their length as var int
+				int length = Type.VAR_INT.readPrimitive(input);
+				Type.VAR_INT.writePrimitive(output, length);
+				output.writeBytes(input, length);
+				return true;
+			case Position:
+				output.writeBytes(input, 12);
+				return true;
+			case Slot:
+				Item item = (Item) newType.type().read(input);
+				MetaType1_7_6_10.Slot.type().write(output, ItemRewriter.toClient(item));
+				return true;
+			default:
+				skip(input, newType);
+				return false;
+		}
+	}
+
+	private static void skip(ByteBuf input, MetaType1_8 type) throws Exception {
+		switch (type) {
+			case Byte:
+				input.skipBytes(1);
+				break;
+			case Short:
+				input.skipBytes(2);
+				break;
+			case Int:
+			case Float:
+				input.skipBytes(4);
+				break;
+			case String:
+				input.skipBytes(Type.VAR_INT.readPrimitive(input));
+				break;
+			case Position:
+			case Rotation:
+				input.skipBytes(12);
+				break;
+			default:
+				type.type().read(input);
+				break;
+		}
+	}
+}
@@ -20,7 +20,7 @@ package com.viaversion.viarewind.protocol.protocol1_7_6_10to1_8.packets;
 
 import com.google.common.collect.Lists;
 import com.google.common.primitives.Ints;
-import com.viaversion.viarewind.protocol.protocol1_7_6_10to1_8.metadata.MetadataRewriter;
+import com.viaversion.viarewind.protocol.protocol1_7_6_10to1_8.metadata.MetadataTranscoder;
 import com.viaversion.viarewind.protocol.protocol1_7_6_10to1_8.storage.EntityTracker;
 import com.viaversion.viarewind.protocol.protocol1_7_6_10to1_8.storage.GameProfileStorage;
 import com.viaversion.viarewind.replacement.EntityReplacement;
@@ -38,6 +38,8 @@ import com.viaversion.viaversion.api.type.Type;
 import com.viaversion.viaversion.api.type.types.version.Types1_8;
 import com.viaversion.viaversion.protocols.protocol1_8.ClientboundPackets1_8;
 import com.viaversion.viarewind.protocol.protocol1_7_6_10to1_8.types.Types1_7_6_10;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 
 import java.util.List;
 import java.util.UUID;
@@ -56,8 +58,7 @@ public class EntityPackets {
 				map(Type.ITEM, Types1_7_6_10.COMPRESSED_NBT_ITEM);  //Item
 				handler(packetWrapper -> {
 					Item item = packetWrapper.get(Types1_7_6_10.COMPRESSED_NBT_ITEM, 0);
-					ItemRewriter.toClient(item);
-					packetWrapper.set(Types1_7_6_10.COMPRESSED_NBT_ITEM, 0, item);
+					packetWrapper.set(Types1_7_6_10.COMPRESSED_NBT_ITEM, 0, ItemRewriter.toClient(item));
 				});
 				handler(packetWrapper -> {
 					EntityTracker tracker = packetWrapper.user().get(EntityTracker.class);
@@ -294,20 +295,25 @@ public class EntityPackets {
 			@Override
 			public void register() {
 				map(Type.VAR_INT, Type.INT);  //Entity Id
-				map(Types1_8.METADATA_LIST, Types1_7_6_10.METADATA_LIST);  //Metadata
 				handler(wrapper -> {
-					List<Metadata> metadataList = wrapper.get(Types1_7_6_10.METADATA_LIST, 0);
 					int entityId = wrapper.get(Type.INT, 0);
 					EntityTracker tracker = wrapper.user().get(EntityTracker.class);
-					if (tracker.getClientEntityTypes().containsKey(entityId)) {
-						EntityReplacement replacement = tracker.getEntityReplacement(entityId);
-						if (replacement != null) {
-							wrapper.cancel();
-							replacement.updateMetadata(metadataList);
+					if (tracker.getClientEntityTypes().containsKey(entityId) && tracker.getEntityReplacement(entityId) == null) {
+						// Rewrite the metadata of plain entities without reading it into a list first
+						ByteBuf input = wrapper.read(Types1_7_6_10.REMAINING_BUFFER);
+						ByteBuf output = Unpooled.buffer(input.readableBytes() + 1);
+						if (MetadataTranscoder.transcode(tracker.getClientEntityTypes().get(entityId), input, output)) {
+							wrapper.write(Types1_7_6_10.REMAINING_BUFFER, output);
 						} else {
-							MetadataRewriter.transform(tracker.getClientEntityTypes().get(entityId), metadataList);
-							if (metadataList.isEmpty()) wrapper.cancel();
+							wrapper.cancel();
 						}
+						return;
+					}
+
+					List<Metadata> metadataList = wrapper.read(Types1_8.METADATA_LIST);
+					if (tracker.getClientEntityTypes().containsKey(entityId)) {
+						wrapper.cancel();
+						tracker.getEntityReplacement(entityId).updateMetadata(metadataList);
 					} else {
 						tracker.addMetadataToBuffer(entityId, metadataList);
 						wrapper.cancel();
@@ -18,6 +18,8 @@
 
 package com.viaversion.viarewind.protocol.protocol1_7_6_10to1_8.packets;
 
+import com.viaversion.viarewind.ViaRewind;
+import com.viaversion.viarewind.protocol.protocol1_7_6_10to1_8.ClientboundPackets1_7;
 import com.viaversion.viarewind.protocol.protocol1_7_6_10to1_8.storage.EntityTracker;
 import com.viaversion.viarewind.protocol.protocol1_7_6_10to1_8.storage.GameProfileStorage;
 import com.viaversion.viarewind.protocol.protocol1_7_6_10to1_8.storage.Windows;
@@ -25,10 +27,11 @@ import com.viaversion.viarewind.utils.ChatUtil;
 import com.viaversion.viarewind.protocol.protocol1_7_6_10to1_8.Protocol1_7_6_10To1_8;
 import com.viaversion.viarewind.protocol.protocol1_7_6_10to1_8.ServerboundPackets1_7;
 import com.viaversion.viarewind.protocol.protocol1_7_6_10to1_8.items.ItemRewriter;
+import com.viaversion.viarewind.utils.PacketUtil;
 import com.viaversion.viaversion.api.minecraft.item.Item;
+import com.viaversion.viaversion.api.protocol.packet.PacketWrapper;
 import com.viaversion.viaversion.api.protocol.remapper.PacketHandlers;
 import com.viaversion.viaversion.api.type.Type;
-import com.viaversion.viaversion.libs.gson.JsonElement;
 import com.viaversion.viaversion.protocols.protocol1_8.ClientboundPackets1_8;
 import com.viaversion.viarewind.protocol.protocol1_7_6_10to1_8.types.Types1_7_6_10;
 
@@ -47,11 +50,12 @@ public class InventoryPackets {
 					short windowId = packetWrapper.passthrough(Type.UNSIGNED_BYTE);
 					String windowType = packetWrapper.read(Type.STRING);
 					short windowtypeId = (short) Windows.getInventoryType(windowType);
-					packetWrapper.user().get(Windows.class).types.put(windowId, windowtypeId);
+					Windows windows = packetWrapper.user().get(Windows.class);
+					windows.types.put(windowId, windowtypeId);
+					windows.contents.remove(windowId);
 					packetWrapper.write(Type.UNSIGNED_BYTE, windowtypeId);
 
-					JsonElement titleComponent = packetWrapper.read(Type.COMPONENT);  //Title
-					String title = ChatUtil.jsonToLegacy(titleComponent);
+					String title = ChatUtil.readLegacy(packetWrapper, "window_title");  //Title
 					title = ChatUtil.removeUnusedColor(title, '8');
 					if (title.length() > 32) {
 						title = title.substring(0, 32);
@@ -97,8 +101,11 @@ public class InventoryPackets {
 				map(Type.ITEM, Types1_7_6_10.COMPRESSED_NBT_ITEM);  //Item
 				handler(packetWrapper -> {
 					Item item = packetWrapper.get(Types1_7_6_10.COMPRESSED_NBT_ITEM, 0);
-					ItemRewriter.toClient(item);
+					item = ItemRewriter.toClient(item);
 					packetWrapper.set(Types1_7_6_10.COMPRESSED_NBT_ITEM, 0, item);
+					short windowId = packetWrapper.get(Type.UNSIGNED_BYTE, 0);
+					short slot = packetWrapper.get(Type.SHORT, 0);
+					packetWrapper.user().get(Windows.class).contents.set(windowId, slot, item);
 				});
 				handler(packetWrapper -> {
 					short windowId = packetWrapper.get(Type.UNSIGNED_BYTE, 0);
@@ -146,6 +153,21 @@ public class InventoryPackets {
 						if (profile != null) items[5] = profile.getSkull();
 					}
 				});
+				handler(packetWrapper -> {
+					short windowId = packetWrapper.get(Type.UNSIGNED_BYTE, 0);
+					if (windowId == 0 || !ViaRewind.getConfig().isWindowItemDiffing()) return;
+					Item[] items = packetWrapper.get(Types1_7_6_10.COMPRESSED_NBT_ITEM_ARRAY, 0);
+					int[] changed = packetWrapper.user().get(Windows.class).contents.diff(windowId, items);
+					if (changed == null) return;
+					packetWrapper.cancel();
+					for (int slot : changed) {
+						PacketWrapper setSlot = PacketWrapper.create(ClientboundPackets1_7.SET_SLOT, null, packetWrapper.user());
+						setSlot.write(Type.UNSIGNED_BYTE, windowId);
+						setSlot.write(Type.SHORT, (short) slot);
+						setSlot.write(Types1_7_6_10.COMPRESSED_NBT_ITEM, items[slot]);
+						PacketUtil.sendPacket(setSlot, Protocol1_7_6_10To1_8.class, true, true);
+					}
+				});
 			}
 		});
 
@@ -224,7 +246,10 @@ public class InventoryPackets {
 				handler(packetWrapper -> {
 					short windowId = packetWrapper.read(Type.BYTE);  //Window Id
 					packetWrapper.write(Type.UNSIGNED_BYTE, windowId);
-					short windowType = packetWrapper.user().get(Windows.class).get(windowId);
+					Windows windows = packetWrapper.user().get(Windows.class);
+					short windowType = windows.get(windowId);
+					// The client changed the window on its own, so the next window items have to be sent in full
+					windows.contents.remove(windowId);
 					short slot = packetWrapper.read(Type.SHORT);
 					if (windowType == 4) {
 						if (slot > 0) {
@@ -40,7 +40,6 @@ import com.viaversion.viaversion.api.minecraft.item.Item;
 import com.viaversion.viaversion.api.protocol.packet.PacketWrapper;
 import com.viaversion.viaversion.api.protocol.remapper.PacketHandlers;
 import com.viaversion.viaversion.api.type.Type;
-import com.viaversion.viaversion.libs.gson.JsonElement;
 import com.viaversion.viaversion.libs.gson.JsonParser;
 import com.viaversion.viaversion.libs.opennbt.tag.builtin.CompoundTag;
 import com.viaversion.viaversion.libs.opennbt.tag.builtin.ListTag;
@@ -306,9 +305,9 @@ public class PlayerPackets {
 							int ping = packetWrapper.read(Type.VAR_INT);
 							gameProfile.ping = ping;
 							gameProfile.gamemode = gamemode;
-							JsonElement displayName = packetWrapper.read(Type.OPTIONAL_COMPONENT);
+							String displayName = ChatUtil.readOptionalLegacy(packetWrapper, "tab_list");
 							if (displayName != null) {
-								gameProfile.setDisplayName(ChatUtil.jsonToLegacy(displayName));
+								gameProfile.setDisplayName(displayName);
 							}
 
 							PacketWrapper packet = PacketWrapper.create(0x38, null, packetWrapper.user());
@@ -368,8 +367,7 @@ public class PlayerPackets {
 							packet.write(Type.SHORT, (short) ping);
 							PacketUtil.sendPacket(packet, Protocol1_7_6_10To1_8.class);
 						} else if (action == 3) {
-							JsonElement displayNameComponent = packetWrapper.read(Type.OPTIONAL_COMPONENT);
-							String displayName = displayNameComponent != null ? ChatUtil.jsonToLegacy(displayNameComponent) : null;
+							String displayName = ChatUtil.readOptionalLegacy(packetWrapper, "tab_list");
 
 							GameProfileStorage.GameProfile gameProfile = gameProfileStorage.get(uuid);
 							if (gameProfile == null || gameProfile.displayName == null && displayName == null) continue;
@@ -638,6 +636,7 @@ public class PlayerPackets {
 
 					playerPosition.setOnGround(packetWrapper.get(Type.BOOLEAN, 0));
 					playerPosition.setPos(x, feetY, z);
+					packetWrapper.user().get(EntityTracker.class).updateReplacementVisibility(x, feetY, z);
 				});
 			}
 		});
@@ -679,6 +678,7 @@ public class PlayerPackets {
 
 					playerPosition.setOnGround(packetWrapper.get(Type.BOOLEAN, 0));
 					playerPosition.setPos(x, feetY, z);
+					packetWrapper.user().get(EntityTracker.class).updateReplacementVisibility(x, feetY, z);
 					playerPosition.setYaw(yaw);
 					playerPosition.setPitch(pitch);
 				});
@@ -26,19 +26,12 @@ import com.viaversion.viarewind.protocol.protocol1_7_6_10to1_8.Protocol1_7_6_10T
 import com.viaversion.viarewind.protocol.protocol1_7_6_10to1_8.items.ReplacementRegistry1_7_6_10to1_8;
 import com.viaversion.viaversion.api.minecraft.BlockChangeRecord;
 import com.viaversion.viaversion.api.minecraft.Position;
-import com.viaversion.viaversion.api.minecraft.chunks.Chunk;
-import com.viaversion.viaversion.api.minecraft.chunks.ChunkSection;
-import com.viaversion.viaversion.api.minecraft.chunks.DataPalette;
-import com.viaversion.viaversion.api.minecraft.chunks.PaletteType;
 import com.viaversion.viaversion.api.protocol.packet.PacketWrapper;
 import com.viaversion.viaversion.api.protocol.remapper.PacketHandlers;
 import com.viaversion.viaversion.api.type.Type;
 import com.viaversion.viaversion.api.type.types.CustomByteType;
 import com.viaversion.viaversion.protocols.protocol1_8.ClientboundPackets1_8;
-import com.viaversion.viaversion.protocols.protocol1_9_3to1_9_1_2.storage.ClientWorld;
-import com.viaversion.viaversion.protocols.protocol1_9to1_8.types.Chunk1_8Type;
 import com.viaversion.viaversion.util.ChatColorUtil;
-import com.viaversion.viarewind.protocol.protocol1_7_6_10to1_8.types.Chunk1_7_10Type;
 import com.viaversion.viarewind.protocol.protocol1_7_6_10to1_8.types.Particle;
 import com.viaversion.viarewind.protocol.protocol1_7_6_10to1_8.types.Types1_7_6_10;
 
@@ -51,20 +44,7 @@ public class WorldPackets {
 		protocol.registerClientbound(ClientboundPackets1_8.CHUNK_DATA, new PacketHandlers() {
 			@Override
 			public void register() {
-				handler(packetWrapper -> {
-					ClientWorld world = packetWrapper.user().get(ClientWorld.class);
-					Chunk chunk = packetWrapper.read(new Chunk1_8Type(world));
-					packetWrapper.write(new Chunk1_7_10Type(world), chunk);
-					for (ChunkSection section : chunk.getSections()) {
-						if (section == null) continue;
-						DataPalette palette = section.palette(PaletteType.BLOCKS);
-						for (int i = 0; i < palette.size(); i++) {
-							int block = palette.idByIndex(i);
-							int replacedBlock = ReplacementRegistry1_7_6_10to1_8.replace(block);
-							palette.setIdByIndex(i, replacedBlock);
-						}
-					}
-				});
+				handler(ChunkPacketTransformer::transformChunk);
 			}
 		});
 
@@ -213,7 +193,7 @@ public class WorldPackets {
 				handler(packetWrapper -> {
 					for (int i = 0; i < 4; i++) {
 						String line = packetWrapper.read(Type.STRING);
-						line = ChatUtil.jsonToLegacy(line);
+						line = ChatUtil.jsonToLegacy("sign", line);
 						line = ChatUtil.removeUnusedColor(line, '0');
 						if (line.length() > 15) {
 							line = ChatColorUtil.stripColor(line);
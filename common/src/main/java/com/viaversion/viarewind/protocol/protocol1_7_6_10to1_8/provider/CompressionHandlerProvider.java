@@ -23,8 +23,9 @@ import com.viaversion.viaversion.api.Via;
 import com.viaversion.viaversion.api.connection.UserConnection;
 import com.viaversion.viaversion.api.platform.providers.Provider;
 import com.viaversion.viaversion.api.type.Type;
-import com.viaversion.viarewind.netty.EmptyChannelHandler;
-import com.viaversion.viarewind.netty.ForwardMessageToByteEncoder;
+import com.viaversion.viarewind.netty.PassthroughChannelHandler;
+import com.viaversion.viarewind.netty.PooledCompressionDecoder;
+import com.viaversion.viarewind.netty.PooledCompressionEncoder;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufAllocator;
 import io.netty.channel.ChannelHandler;
@@ -39,6 +40,20 @@ import java.util.zip.Deflater;
 import java.util.zip.Inflater;
 
 public class CompressionHandlerProvider implements Provider {
+	private final boolean pooled;
+
+	public CompressionHandlerProvider() {
+		this(true);
+	}
+
+	/**
+	 * @param pooled whether the compression handlers should use pooled buffers of the channel allocator
+	 *               instead of copying every packet into heap buffers
+	 */
+	public CompressionHandlerProvider(boolean pooled) {
+		this.pooled = pooled;
+	}
+
 	public void handleSetCompression(UserConnection user, int threshold) {
 		ChannelPipeline pipeline = user.getChannel().pipeline();
 		if (user.isClientSide()) {
@@ -65,8 +80,8 @@ public class CompressionHandlerProvider implements Provider {
 				decompressor = "compression-decoder";
 			}
 			if (compressor != null) { // We can neutralize the effect of compressor to the client
-				pipeline.replace(decompressor, decompressor, new EmptyChannelHandler());
-				pipeline.replace(compressor, compressor, new ForwardMessageToByteEncoder());
+				pipeline.replace(decompressor, decompressor, PassthroughChannelHandler.INSTANCE);
+				pipeline.replace(compressor, compressor, PassthroughChannelHandler.INSTANCE);
 			} else {
 				throw new IllegalStateException("Couldn't remove compression for 1.7!");
 			}
@@ -76,11 +91,11 @@ public class CompressionHandlerProvider implements Provider {
 	}
 
 	protected ChannelHandler getEncoder(int threshold) {
-		return new Compressor(threshold);
+		return pooled ? new PooledCompressionEncoder(threshold) : new Compressor(threshold);
 	}
 
 	protected ChannelHandler getDecoder(int threshold) {
-		return new Decompressor(threshold);
+		return pooled ? new PooledCompressionDecoder(threshold) : new Decompressor(threshold);
 	}
 
 	private static class Decompressor extends MessageToMessageDecoder<ByteBuf> {
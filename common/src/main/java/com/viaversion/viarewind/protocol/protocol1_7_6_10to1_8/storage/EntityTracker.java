@@ -19,8 +19,14 @@
 package com.viaversion.viarewind.protocol.protocol1_7_6_10to1_8.storage;
 
 import com.viaversion.viarewind.protocol.protocol1_7_6_10to1_8.metadata.MetadataRewriter;
+import com.viaversion.viarewind.ViaRewind;
+import com.viaversion.viarewind.protocol.protocol1_7_6_10to1_8.entityreplacements.ArmorStandReplacement;
+import com.viaversion.viarewind.protocol.protocol1_7_6_10to1_8.entityreplacements.EntityReplacement1_7to1_8;
 import com.viaversion.viarewind.replacement.EntityReplacement;
+import com.viaversion.viarewind.utils.MetadataBuffer;
 import com.viaversion.viarewind.utils.PacketUtil;
+import com.viaversion.viarewind.utils.Tickable;
+import com.viaversion.viarewind.utils.Ticker;
 import com.viaversion.viarewind.protocol.protocol1_7_6_10to1_8.Protocol1_7_6_10To1_8;
 import com.viaversion.viaversion.api.connection.StoredObject;
 import com.viaversion.viaversion.api.connection.UserConnection;
@@ -31,43 +37,101 @@ import com.viaversion.viaversion.api.minecraft.metadata.Metadata;
 import com.viaversion.viaversion.api.protocol.packet.PacketWrapper;
 import com.viaversion.viaversion.api.type.Type;
 import com.viaversion.viaversion.api.type.types.version.Types1_8;
-
+import com.viaversion.viaversion.libs.fastutil.ints.Int2IntMap;
+import com.viaversion.viaversion.libs.fastutil.ints.Int2IntOpenHashMap;
+import com.viaversion.viaversion.libs.fastutil.ints.Int2ObjectMap;
+import com.viaversion.viaversion.libs.fastutil.ints.Int2ObjectOpenHashMap;
+import com.viaversion.viaversion.libs.fastutil.objects.Object2IntMap;
+import com.viaversion.viaversion.libs.fastutil.objects.Object2IntOpenHashMap;
+
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
-
-public class EntityTracker extends StoredObject implements ClientEntityIdChangeListener {
-	private final Map<Integer, Entity1_10Types.EntityType> clientEntityTypes = new ConcurrentHashMap();
-	private final Map<Integer, List<Metadata>> metadataBuffer = new ConcurrentHashMap();
-	private final Map<Integer, Integer> vehicles = new ConcurrentHashMap<>();
-	private final Map<Integer, EntityReplacement> entityReplacements = new ConcurrentHashMap<>();
-	private final Map<Integer, UUID> playersByEntityId = new HashMap<>();
-	private final Map<UUID, Integer> playersByUniqueId = new HashMap<>();
+
+public class EntityTracker extends StoredObject implements ClientEntityIdChangeListener, Tickable {
+	private final Int2ObjectMap<Entity1_10Types.EntityType> clientEntityTypes = new Int2ObjectOpenHashMap<>();
+	private final Int2ObjectMap<MetadataBuffer> metadataBuffer = new Int2ObjectOpenHashMap<>();
+	private final Int2IntMap vehicles = new Int2IntOpenHashMap();
+	private final Int2IntMap passengerVehicles = new Int2IntOpenHashMap();
+	private final Int2ObjectMap<EntityReplacement> entityReplacements = new Int2ObjectOpenHashMap<>();
+	private final Int2ObjectMap<UUID> playersByEntityId = new Int2ObjectOpenHashMap<>();
+	private final Object2IntMap<UUID> playersByUniqueId = new Object2IntOpenHashMap<>();
 	private final Map<UUID, Item[]> playerEquipment = new HashMap<>();
+	private final List<EntityReplacement1_7to1_8> scheduledLocationUpdates = new ArrayList<>();
 	private int gamemode = 0;
 	private int playerId = -1;
 	private int spectating = -1;
 	private int dimension = 0;
+	private double visibilityCheckX = Double.NaN, visibilityCheckY, visibilityCheckZ;
 
 	public EntityTracker(UserConnection user) {
 		super(user);
+		vehicles.defaultReturnValue(-1);
+		passengerVehicles.defaultReturnValue(-1);
+		playersByUniqueId.defaultReturnValue(-1);
+		Ticker.register(this);
+	}
+
+	@Override
+	public void tick() {
+		for (EntityReplacement1_7to1_8 replacement : scheduledLocationUpdates) {
+			// Skip replacements which were removed in the meantime
+			if (entityReplacements.get(replacement.getEntityId()) != replacement) continue;
+			replacement.flushLocationUpdate();
+		}
+		scheduledLocationUpdates.clear();
+	}
+
+	@Override
+	public boolean isActive() {
+		return !scheduledLocationUpdates.isEmpty();
+	}
+
+	public void scheduleLocationUpdate(EntityReplacement1_7to1_8 replacement) {
+		scheduledLocationUpdates.add(replacement);
+		Ticker.wake(this);
 	}
 
 	public void removeEntity(int entityId) {
 		clientEntityTypes.remove(entityId);
-		if (entityReplacements.containsKey(entityId)) {
-			entityReplacements.remove(entityId).despawn();
+		int passenger = vehicles.remove(entityId);
+		if (passenger != -1) passengerVehicles.remove(passenger);
+		int vehicle = passengerVehicles.remove(entityId);
+		if (vehicle != -1) vehicles.remove(vehicle);
+		EntityReplacement replacement = entityReplacements.remove(entityId);
+		if (replacement != null) {
+			replacement.despawn();
 		}
-		if (playersByEntityId.containsKey(entityId)) {
-			UUID playerId = playersByEntityId.remove(entityId);
-			playersByUniqueId.remove(playerId);
+		UUID playerId = playersByEntityId.remove(entityId);
+		if (playerId != null) {
+			playersByUniqueId.removeInt(playerId);
 			playerEquipment.remove(playerId);
 		}
 	}
 
-	public void addPlayer(Integer entityId, UUID uuid) {
+	/**
+	 * Spawns and despawns the armor stand replacements around the player once it moved a few blocks
+	 */
+	public void updateReplacementVisibility(double x, double y, double z) {
+		if (ViaRewind.getConfig().getHologramViewDistance() <= 0) return;
+		double dx = x - visibilityCheckX;
+		double dy = y - visibilityCheckY;
+		double dz = z - visibilityCheckZ;
+		if (dx * dx + dy * dy + dz * dz < 4) return;
+		visibilityCheckX = x;
+		visibilityCheckY = y;
+		visibilityCheckZ = z;
+
+		for (EntityReplacement replacement : entityReplacements.values()) {
+			if (replacement instanceof ArmorStandReplacement) {
+				((ArmorStandReplacement) replacement).updateVisibility();
+			}
+		}
+	}
+
+	public void addPlayer(int entityId, UUID uuid) {
 		playersByUniqueId.put(uuid, entityId);
 		playersByEntityId.put(entityId, uuid);
 	}
@@ -77,7 +141,7 @@ public class EntityTracker extends StoredObject implements ClientEntityIdChangeL
 	}
 
 	public int getPlayerEntityId(UUID uuid) {
-		return playersByUniqueId.getOrDefault(uuid, -1);
+		return playersByUniqueId.getInt(uuid);
 	}
 
 	public Item getPlayerEquipment(UUID uuid, int slot) {
@@ -93,16 +157,13 @@ public class EntityTracker extends StoredObject implements ClientEntityIdChangeL
 		items[slot] = equipment;
 	}
 
-	public Map<Integer, Entity1_10Types.EntityType> getClientEntityTypes() {
+	public Int2ObjectMap<Entity1_10Types.EntityType> getClientEntityTypes() {
 		return this.clientEntityTypes;
 	}
 
 	public void addMetadataToBuffer(int entityID, List<Metadata> metadataList) {
-		if (this.metadataBuffer.containsKey(entityID)) {
-			this.metadataBuffer.get(entityID).addAll(metadataList);
-		} else if (!metadataList.isEmpty()) {
-			this.metadataBuffer.put(entityID, metadataList);
-		}
+		if (metadataList.isEmpty()) return;
+		this.metadataBuffer.computeIfAbsent(entityID, id -> new MetadataBuffer()).add(metadataList);
 	}
 
 	public void addEntityReplacement(EntityReplacement entityReplacement) {
@@ -114,36 +175,35 @@ public class EntityTracker extends StoredObject implements ClientEntityIdChangeL
 	}
 
 	public List<Metadata> getBufferedMetadata(int entityId) {
-		return metadataBuffer.get(entityId);
+		MetadataBuffer buffer = metadataBuffer.get(entityId);
+		return buffer != null ? buffer.toList() : null;
 	}
 
 	public void sendMetadataBuffer(int entityId) {
-		if (!this.metadataBuffer.containsKey(entityId)) return;
-		if (entityReplacements.containsKey(entityId)) {
-			entityReplacements.get(entityId).updateMetadata(this.metadataBuffer.remove(entityId));
+		MetadataBuffer buffer = this.metadataBuffer.remove(entityId);
+		if (buffer == null) return;
+		List<Metadata> metadataList = buffer.toList();
+		EntityReplacement replacement = entityReplacements.get(entityId);
+		if (replacement != null) {
+			replacement.updateMetadata(metadataList);
 		} else {
 			Entity1_10Types.EntityType type = this.getClientEntityTypes().get(entityId);
 			PacketWrapper wrapper = PacketWrapper.create(0x1C, null, this.getUser());
 			wrapper.write(Type.VAR_INT, entityId);
-			wrapper.write(Types1_8.METADATA_LIST, this.metadataBuffer.get(entityId));
-			MetadataRewriter.transform(type, this.metadataBuffer.get(entityId));
-			if (!this.metadataBuffer.get(entityId).isEmpty()) {
+			wrapper.write(Types1_8.METADATA_LIST, metadataList);
+			MetadataRewriter.transform(type, metadataList);
+			if (!metadataList.isEmpty()) {
 				PacketUtil.sendPacket(wrapper, Protocol1_7_6_10To1_8.class);
 			}
-
-			this.metadataBuffer.remove(entityId);
 		}
 	}
 
 	public int getVehicle(int passengerId) {
-		for (Map.Entry<Integer, Integer> vehicle : vehicles.entrySet()) {
-			if (vehicle.getValue()==passengerId) return vehicle.getValue();
-		}
-		return -1;
+		return passengerVehicles.get(passengerId);
 	}
 
 	public int getPassenger(int vehicleId) {
-		return vehicles.getOrDefault(vehicleId, -1);
+		return vehicles.get(vehicleId);
 	}
 
 	public void setPassenger(int vehicleId, int passengerId) {
@@ -165,12 +225,17 @@ public class EntityTracker extends StoredObject implements ClientEntityIdChangeL
 			} catch (Exception ex) {ex.printStackTrace();}
 		}
 		if (vehicleId==-1) {
-			int oldVehicleId = getVehicle(passengerId);
-			vehicles.remove(oldVehicleId);
+			int oldVehicleId = passengerVehicles.remove(passengerId);
+			if (oldVehicleId != -1) vehicles.remove(oldVehicleId);
 		} else if (passengerId==-1) {
-			vehicles.remove(vehicleId);
+			int oldPassengerId = vehicles.remove(vehicleId);
+			if (oldPassengerId != -1) passengerVehicles.remove(oldPassengerId);
 		} else {
-			vehicles.put(vehicleId, passengerId);
+			// Both sides can only have one partner, so drop their previous ones
+			int oldVehicleId = passengerVehicles.put(passengerId, vehicleId);
+			if (oldVehicleId != -1 && oldVehicleId != vehicleId) vehicles.remove(oldVehicleId);
+			int oldPassengerId = vehicles.put(vehicleId, passengerId);
+			if (oldPassengerId != -1 && oldPassengerId != passengerId) passengerVehicles.remove(oldPassengerId);
 		}
 	}
 
@@ -234,7 +299,9 @@ public class EntityTracker extends StoredObject implements ClientEntityIdChangeL
 	public void clearEntities() {
 		clientEntityTypes.clear();
 		entityReplacements.clear();
+		scheduledLocationUpdates.clear();
 		vehicles.clear();
+		passengerVehicles.clear();
 		metadataBuffer.clear();
 	}
 
@@ -18,6 +18,7 @@
 
 package com.viaversion.viarewind.protocol.protocol1_7_6_10to1_8.storage;
 
+import com.viaversion.viarewind.utils.WindowContents;
 import com.viaversion.viaversion.api.connection.StoredObject;
 import com.viaversion.viaversion.api.connection.UserConnection;
 
@@ -26,6 +27,7 @@ import java.util.HashMap;
 public class Windows extends StoredObject {
 	public HashMap<Short, Short> types = new HashMap<>();
 	public HashMap<Short, Furnace> furnace = new HashMap<>();
+	public final WindowContents contents = new WindowContents();
 	public short levelCost = 0;
 	public short anvilId = -1;
 
@@ -40,6 +42,7 @@ public class Windows extends StoredObject {
 	public void remove(short windowId) {
 		types.remove(windowId);
 		furnace.remove(windowId);
+		contents.remove(windowId);
 	}
 
 	public static int getInventoryType(String name) {
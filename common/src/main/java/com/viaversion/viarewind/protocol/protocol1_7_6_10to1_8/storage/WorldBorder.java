@@ -20,6 +20,7 @@ package com.viaversion.viarewind.protocol.protocol1_7_6_10to1_8.storage;
 
 import com.viaversion.viarewind.utils.PacketUtil;
 import com.viaversion.viarewind.utils.Tickable;
+import com.viaversion.viarewind.utils.Ticker;
 import com.viaversion.viarewind.protocol.protocol1_7_6_10to1_8.Protocol1_7_6_10To1_8;
 import com.viaversion.viaversion.api.connection.StoredObject;
 import com.viaversion.viaversion.api.connection.UserConnection;
@@ -39,6 +40,7 @@ public class WorldBorder extends StoredObject implements Tickable {
 
 	public WorldBorder(UserConnection user) {
 		super(user);
+		Ticker.register(this);
 	}
 
 	@Override
@@ -123,6 +125,11 @@ public class WorldBorder extends StoredObject implements Tickable {
 		return init;
 	}
 
+	@Override
+	public boolean isActive() {
+		return init;
+	}
+
 	public void init(double x, double z, double oldDiameter, double newDiameter, long lerpTime, int portalTeleportBoundary, int warningTime, int warningBlocks) {
 		this.x = x;
 		this.z = z;
@@ -133,6 +140,7 @@ public class WorldBorder extends StoredObject implements Tickable {
 		this.warningTime = warningTime;
 		this.warningBlocks = warningBlocks;
 		init = true;
+		Ticker.wake(this);
 	}
 
 	public double getX() {
@@ -18,18 +18,15 @@
 
 package com.viaversion.viarewind.protocol.protocol1_7_6_10to1_8.types;
 
+import com.viaversion.viarewind.protocol.protocol1_7_6_10to1_8.chunks.ChunkCompression;
 import com.viaversion.viaversion.api.minecraft.Environment;
 import com.viaversion.viaversion.api.minecraft.chunks.Chunk;
-import com.viaversion.viaversion.api.minecraft.chunks.ChunkSection;
 import com.viaversion.viaversion.api.minecraft.chunks.DataPalette;
 import com.viaversion.viaversion.api.minecraft.chunks.PaletteType;
 import com.viaversion.viaversion.api.type.PartialType;
-import com.viaversion.viaversion.api.type.Type;
 import com.viaversion.viaversion.protocols.protocol1_9_3to1_9_1_2.storage.ClientWorld;
 import io.netty.buffer.ByteBuf;
 
-import java.io.ByteArrayOutputStream;
-import java.util.zip.DeflaterOutputStream;
 
 public class Chunk1_7_10Type extends PartialType<Chunk, ClientWorld> {
 
@@ -50,29 +47,26 @@ public class Chunk1_7_10Type extends PartialType<Chunk, ClientWorld> {
         output.writeShort(chunk.getBitmask());
         output.writeShort(0);
 
-        ByteBuf dataToCompress = output.alloc().buffer();
+        int blockCount = Integer.bitCount(chunk.getBitmask()) * 4096;
+        ByteBuf dataToCompress = output.alloc().heapBuffer();
         try {
+            // Block ids and metadata are written in one pass, metadata follows all block ids
+            dataToCompress.ensureWritable(blockCount + blockCount / 2);
+            int blockIndex = dataToCompress.writerIndex();
+            int metaIndex = blockIndex + blockCount;
             for (int i = 0; i < chunk.getSections().length; i++) {
                 if ((chunk.getBitmask() & 1 << i) == 0) continue;
-                ChunkSection section = chunk.getSections()[i];
-				DataPalette palette = section.palette(PaletteType.BLOCKS);
-				for (int j = 0; j < 4096; j++) {
-					int block = palette.idAt(j);
-                    dataToCompress.writeByte(block >> 4);
-                }
-            }
+                DataPalette palette = chunk.getSections()[i].palette(PaletteType.BLOCKS);
+                for (int j = 0; j < 4096; j += 2) {
+                    int block0 = palette.idAt(j);
+                    int block1 = palette.idAt(j + 1);
 
-            for (int i = 0; i < chunk.getSections().length; i++) {
-                if ((chunk.getBitmask() & 1 << i) == 0) continue;
-                ChunkSection section = chunk.getSections()[i];
-				DataPalette palette = section.palette(PaletteType.BLOCKS);
-				for (int j = 0; j < 4096; j += 2) {
-					int data0 = palette.idAt(j) & 0xF;
-                    int data1 = palette.idAt(j + 1) & 0xF;
-
-                    dataToCompress.writeByte((data1 << 4) | data0);
+                    dataToCompress.setByte(blockIndex++, block0 >> 4);
+                    dataToCompress.setByte(blockIndex++, block1 >> 4);
+                    dataToCompress.setByte(metaIndex++, (block1 & 0xF) << 4 | block0 & 0xF);
                 }
             }
+            dataToCompress.writerIndex(metaIndex);
 
             for (int i = 0; i < chunk.getSections().length; i++) {
                 if ((chunk.getBitmask() & 1 << i) == 0) continue;
@@ -93,14 +87,10 @@ public class Chunk1_7_10Type extends PartialType<Chunk, ClientWorld> {
                 }
             }
 
-            ByteArrayOutputStream compressedStream = new ByteArrayOutputStream();
-            // todo config for compression level
-            try (DeflaterOutputStream compressorStream = new DeflaterOutputStream(compressedStream)) {
-                compressorStream.write(Type.REMAINING_BYTES.read(dataToCompress));
-            }
-
-            output.writeInt(compressedStream.size());
-            output.writeBytes(compressedStream.toByteArray());
+            int sizeIndex = output.writerIndex();
+            output.writeInt(0);
+            ChunkCompression.compress(dataToCompress, output);
+            output.setInt(sizeIndex, output.writerIndex() - sizeIndex - 4);
         } finally {
             dataToCompress.release();
         }
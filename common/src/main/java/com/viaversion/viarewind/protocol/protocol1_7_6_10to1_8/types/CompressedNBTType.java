@@ -18,34 +18,54 @@
 
 package com.viaversion.viarewind.protocol.protocol1_7_6_10to1_8.types;
 
+import com.viaversion.viarewind.utils.ClosableThreadLocal;
 import com.viaversion.viaversion.api.type.Type;
-import com.viaversion.viaversion.libs.opennbt.NBTIO;
 import com.viaversion.viaversion.libs.opennbt.tag.builtin.CompoundTag;
 import io.netty.buffer.ByteBuf;
-import io.netty.buffer.ByteBufInputStream;
-import io.netty.buffer.ByteBufOutputStream;
+import io.netty.buffer.Unpooled;
 
 import java.io.IOException;
-import java.util.zip.GZIPInputStream;
-import java.util.zip.GZIPOutputStream;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
 
+/**
+ * Gzip compressed nbt prefixed with its length as a short.
+ * The gzip framing is handled here, so the deflater and inflater can be reused per thread instead of
+ * allocating gzip streams for every item. The compressed tag is written straight after the reserved length prefix.
+ * The deflaters and inflaters are ended on disable.
+ */
 public class CompressedNBTType extends Type<CompoundTag> {
+	private static final int GZIP_MAGIC = 0x8b1f;
+	private static final int FHCRC = 2;
+	private static final int FEXTRA = 4;
+	private static final int FNAME = 8;
+	private static final int FCOMMENT = 16;
+	/**
+	 * Deflate can't compress better than this, larger sizes in the gzip trailer are corrupt
+	 */
+	private static final int MAX_DEFLATE_RATIO = 1032;
+
+	private static final ClosableThreadLocal<Deflater> DEFLATER = new ClosableThreadLocal<>(() -> new Deflater(Deflater.DEFAULT_COMPRESSION, true), Deflater::end);
+	private static final ClosableThreadLocal<Inflater> INFLATER = new ClosableThreadLocal<>(() -> new Inflater(true), Inflater::end);
+
 	public CompressedNBTType() {
 		super(CompoundTag.class);
 	}
 
+	/**
+	 * Ends the deflaters and inflaters of all threads
+	 */
+	public static void close() {
+		DEFLATER.close();
+		INFLATER.close();
+	}
+
 	@Override
 	public CompoundTag read(ByteBuf buffer) throws IOException {
-		short length = buffer.readShort();
-		if (length <= 0) {
-			return null;
-		}
-
-		ByteBuf compressed = buffer.readSlice(length);
-
-		try (GZIPInputStream gzipStream = new GZIPInputStream(new ByteBufInputStream(compressed))) {
-			return NBTIO.readTag(gzipStream);
-		}
+		byte[] nbt = readRaw(buffer);
+		return nbt == null ? null : NBTType.readTag(Unpooled.wrappedBuffer(nbt));
 	}
 
 	@Override
@@ -55,16 +75,116 @@ public class CompressedNBTType extends Type<CompoundTag> {
 			return;
 		}
 
-		ByteBuf compressedBuf = buffer.alloc().buffer();
+		ByteBuf uncompressed = buffer.alloc().heapBuffer();
+		try {
+			NBTType.writeTag(uncompressed, nbt);
+			writeRaw(buffer, uncompressed.array(), uncompressed.arrayOffset() + uncompressed.readerIndex(), uncompressed.readableBytes());
+		} finally {
+			uncompressed.release();
+		}
+	}
+
+	/**
+	 * Reads the length prefixed gzip data and inflates it
+	 *
+	 * @return the uncompressed nbt or null if there is no tag
+	 */
+	private static byte[] readRaw(ByteBuf buffer) throws IOException {
+		short length = buffer.readShort();
+		if (length <= 0) {
+			return null;
+		}
+
+		ByteBuf compressed = buffer.readSlice(length);
+		skipHeader(compressed);
+		if (compressed.readableBytes() < 8) {
+			throw new IOException("Truncated gzip data");
+		}
+		// The uncompressed size is stored in the last four bytes
+		int size = Integer.reverseBytes(compressed.getInt(compressed.writerIndex() - 4));
+		if (size < 0 || size > length * MAX_DEFLATE_RATIO) {
+			throw new IOException("Invalid uncompressed nbt size " + size);
+		}
+		ByteBuf input = compressed.hasArray() ? compressed : compressed.alloc().heapBuffer(compressed.readableBytes()).writeBytes(compressed);
+		byte[] output = new byte[size];
+		Inflater inflater = INFLATER.get();
+		try {
+			inflater.setInput(input.array(), input.arrayOffset() + input.readerIndex(), input.readableBytes() - 8);
+			if (inflater.inflate(output) != size || !inflater.finished()) {
+				throw new IOException("Uncompressed nbt size doesn't match the gzip trailer");
+			}
+			CRC32 crc = new CRC32();
+			crc.update(output, 0, size);
+			if ((int) crc.getValue() != Integer.reverseBytes(compressed.getInt(compressed.writerIndex() - 8))) {
+				throw new IOException("Corrupt gzip data, crc doesn't match");
+			}
+			return output;
+		} catch (DataFormatException e) {
+			throw new IOException(e);
+		} finally {
+			if (input != compressed) input.release();
+			inflater.reset();
+		}
+	}
+
+	/**
+	 * Gzips the uncompressed nbt and writes it prefixed with its length
+	 */
+	private static void writeRaw(ByteBuf buffer, byte[] array, int offset, int size) {
+		ByteBuf output = buffer.hasArray() ? buffer : buffer.alloc().heapBuffer();
+		Deflater deflater = DEFLATER.get();
 		try {
-			try (GZIPOutputStream gzipStream = new GZIPOutputStream(new ByteBufOutputStream(compressedBuf))) {
-				NBTIO.writeTag(gzipStream, nbt);
+			int lengthIndex = buffer.writerIndex();
+			buffer.writeShort(0);
+			// Header without modification time, extra flags and with unknown os
+			output.writeShort(Short.reverseBytes((short) GZIP_MAGIC)).writeByte(Deflater.DEFLATED).writeByte(0)
+					.writeInt(0).writeByte(0).writeByte(0xff);
+
+			deflater.setInput(array, offset, size);
+			deflater.finish();
+			while (!deflater.finished()) {
+				output.ensureWritable(512);
+				output.writerIndex(output.writerIndex() + deflater.deflate(output.array(),
+						output.arrayOffset() + output.writerIndex(), output.writableBytes()));
 			}
 
-			buffer.writeShort(compressedBuf.readableBytes());
-			buffer.writeBytes(compressedBuf);
+			CRC32 crc = new CRC32();
+			crc.update(array, offset, size);
+			output.writeInt(Integer.reverseBytes((int) crc.getValue())).writeInt(Integer.reverseBytes(size));
+
+			if (output != buffer) {
+				buffer.writeBytes(output);
+			}
+			buffer.setShort(lengthIndex, buffer.writerIndex() - lengthIndex - 2);
 		} finally {
-			compressedBuf.release();
+			if (output != buffer) output.release();
+			deflater.reset();
+		}
+	}
+
+	private static void skipHeader(ByteBuf buffer) throws IOException {
+		if ((Short.reverseBytes(buffer.readShort()) & 0xffff) != GZIP_MAGIC || buffer.readUnsignedByte() != Deflater.DEFLATED) {
+			throw new IOException("Not in gzip format");
+		}
+		int flags = buffer.readUnsignedByte();
+		buffer.skipBytes(6); // Modification time, extra flags and os
+		if ((flags & FEXTRA) != 0) {
+			buffer.skipBytes(Short.reverseBytes(buffer.readShort()) & 0xffff);
+		}
+		if ((flags & FNAME) != 0) {
+			skipString(buffer);
+		}
+		if ((flags & FCOMMENT) != 0) {
+			skipString(buffer);
+		}
+		if ((flags & FHCRC) != 0) {
+			buffer.skipBytes(2);
+		}
+	}
+
+	private static void skipString(ByteBuf buffer) {
+		while (buffer.readByte() != 0) {
+			// Zero terminated
 		}
 	}
 }
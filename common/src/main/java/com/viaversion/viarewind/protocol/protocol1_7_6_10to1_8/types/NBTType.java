@@ -25,43 +25,46 @@ import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufInputStream;
 import io.netty.buffer.ByteBufOutputStream;
 
-import java.io.*;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 
+/**
+ * Uncompressed nbt prefixed with its length as a short. The tag is read from and written to the packet buffer directly,
+ * the length prefix is reserved and filled in once the tag has been written.
+ */
 public class NBTType extends Type<CompoundTag> {
 	public NBTType() {
 		super(CompoundTag.class);
 	}
 
 	@Override
-	public CompoundTag read(ByteBuf buffer) {
+	public CompoundTag read(ByteBuf buffer) throws IOException {
 		short length = buffer.readShort();
-		if (length < 0) {return null;}
-		ByteBufInputStream byteBufInputStream = new ByteBufInputStream(buffer);
-		DataInputStream dataInputStream = new DataInputStream(byteBufInputStream);
-		try {
-			return NBTIO.readTag((DataInput) dataInputStream);
-		} catch (Throwable throwable) {throwable.printStackTrace();}
-		finally {
-			try {
-				dataInputStream.close();
-			} catch (IOException e) {e.printStackTrace();}
+		if (length < 0) {
+			return null;
 		}
-		return null;
+		return readTag(buffer.readSlice(length));
 	}
 
 	@Override
-	public void write(ByteBuf buffer, CompoundTag nbt) throws Exception {
+	public void write(ByteBuf buffer, CompoundTag nbt) throws IOException {
 		if (nbt == null) {
 			buffer.writeShort(-1);
-		} else {
-			ByteBuf buf = buffer.alloc().buffer();
-			ByteBufOutputStream bytebufStream = new ByteBufOutputStream(buf);
-			DataOutputStream dataOutputStream = new DataOutputStream(bytebufStream);
-			NBTIO.writeTag((DataOutput) dataOutputStream, nbt);
-			dataOutputStream.close();
-			buffer.writeShort(buf.readableBytes());
-			buffer.writeBytes(buf);
-			buf.release();
+			return;
 		}
+
+		int lengthIndex = buffer.writerIndex();
+		buffer.writeShort(0);
+		writeTag(buffer, nbt);
+		buffer.setShort(lengthIndex, buffer.writerIndex() - lengthIndex - 2);
+	}
+
+	static CompoundTag readTag(ByteBuf buffer) throws IOException {
+		return NBTIO.readTag((DataInput) new ByteBufInputStream(buffer));
+	}
+
+	static void writeTag(ByteBuf buffer, CompoundTag nbt) throws IOException {
+		NBTIO.writeTag((DataOutput) new ByteBufOutputStream(buffer), nbt);
 	}
-}
\ No newline at end of file
+}
@@ -16,16 +16,28 @@
  * along with this program.  If not, see <http://www.gnu.org/licenses/>.
  */
 
-package com.viaversion.viarewind.netty;
+package com.viaversion.viarewind.protocol.protocol1_7_6_10to1_8.types;
 
+import com.viaversion.viaversion.api.type.Type;
 import io.netty.buffer.ByteBuf;
-import io.netty.channel.ChannelHandlerContext;
-import io.netty.handler.codec.MessageToByteEncoder;
 
-public class ForwardMessageToByteEncoder extends MessageToByteEncoder<ByteBuf> {
+/**
+ * The rest of the packet as a buffer. Reading doesn't copy, the returned buffer is a slice of the packet and only
+ * valid while the packet is being handled.
+ */
+public class RemainingBufferType extends Type<ByteBuf> {
+
+	public RemainingBufferType() {
+		super(ByteBuf.class);
+	}
+
+	@Override
+	public ByteBuf read(ByteBuf buffer) {
+		return buffer.readSlice(buffer.readableBytes());
+	}
 
 	@Override
-	protected void encode(ChannelHandlerContext ctx, ByteBuf msg, ByteBuf out) {
-		out.writeBytes(msg);
+	public void write(ByteBuf buffer, ByteBuf value) {
+		buffer.writeBytes(value);
 	}
 }
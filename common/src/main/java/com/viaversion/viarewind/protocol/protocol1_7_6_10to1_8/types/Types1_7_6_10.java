@@ -22,6 +22,7 @@ import com.viaversion.viaversion.api.minecraft.item.Item;
 import com.viaversion.viaversion.api.minecraft.metadata.Metadata;
 import com.viaversion.viaversion.api.type.Type;
 import com.viaversion.viaversion.libs.opennbt.tag.builtin.CompoundTag;
+import io.netty.buffer.ByteBuf;
 
 import java.util.List;
 
@@ -38,4 +39,8 @@ public class Types1_7_6_10 {
 	 * An int array prefixed with byte representing the size
 	 */
 	public static final Type<int[]> INT_ARRAY = new IntArrayType();
+	/**
+	 * The rest of the packet as a slice of the packet buffer
+	 */
+	public static final Type<ByteBuf> REMAINING_BUFFER = new RemainingBufferType();
 }
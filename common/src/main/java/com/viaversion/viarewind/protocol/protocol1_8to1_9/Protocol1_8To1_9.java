@@ -32,7 +32,6 @@ import com.viaversion.viaversion.protocols.protocol1_8.ServerboundPackets1_8;
 import com.viaversion.viaversion.protocols.protocol1_9_3to1_9_1_2.storage.ClientWorld;
 import com.viaversion.viaversion.protocols.protocol1_9to1_8.ClientboundPackets1_9;
 import com.viaversion.viaversion.protocols.protocol1_9to1_8.ServerboundPackets1_9;
-import com.viaversion.viarewind.utils.Ticker;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentLinkedQueue;
@@ -80,8 +79,6 @@ public class Protocol1_8To1_9 extends AbstractProtocol<ClientboundPackets1_9, Cl
 
 	@Override
 	public void init(UserConnection userConnection) {
-		Ticker.init();
-
 		userConnection.put(new Windows(userConnection));
 		userConnection.put(new EntityTracker(userConnection));
 		userConnection.put(new Levitation(userConnection));
@@ -89,6 +86,7 @@ public class Protocol1_8To1_9 extends AbstractProtocol<ClientboundPackets1_9, Cl
 		userConnection.put(new Cooldown(userConnection));
 		userConnection.put(new BlockPlaceDestroyTracker(userConnection));
 		userConnection.put(new BossBarStorage(userConnection));
+		userConnection.put(new SoundDeduplicator(userConnection));
 		userConnection.put(new ClientWorld(userConnection));
 	}
 }
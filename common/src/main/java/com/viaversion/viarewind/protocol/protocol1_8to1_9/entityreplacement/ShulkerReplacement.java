@@ -19,6 +19,7 @@
 package com.viaversion.viarewind.protocol.protocol1_8to1_9.entityreplacement;
 
 import com.viaversion.viarewind.protocol.protocol1_8to1_9.Protocol1_8To1_9;
+import com.viaversion.viarewind.replacement.DataWatcher;
 import com.viaversion.viarewind.utils.PacketUtil;
 import com.viaversion.viaversion.api.connection.UserConnection;
 import com.viaversion.viaversion.api.minecraft.entities.Entity1_10Types;
@@ -31,12 +32,11 @@ import com.viaversion.viaversion.protocols.protocol1_8.ClientboundPackets1_8;
 import com.viaversion.viarewind.protocol.protocol1_7_6_10to1_8.ClientboundPackets1_7;
 import com.viaversion.viarewind.protocol.protocol1_8to1_9.metadata.MetadataRewriter;
 
-import java.util.ArrayList;
 import java.util.List;
 
 public class ShulkerReplacement extends EntityReplacement1_8to1_9 {
 	private final int entityId;
-	private final List<Metadata> datawatcher = new ArrayList<>();
+	private final DataWatcher datawatcher = new DataWatcher();
 	private double locX, locY, locZ;
 
 	public ShulkerReplacement(int entityId, UserConnection user) {
@@ -66,11 +66,9 @@ public class ShulkerReplacement extends EntityReplacement1_8to1_9 {
 	}
 
 	public void updateMetadata(List<Metadata> metadataList) {
-		for (Metadata metadata : metadataList) {
-			datawatcher.removeIf(m -> m.id() == metadata.id());
-			datawatcher.add(metadata);
+		if (datawatcher.update(metadataList)) {
+			updateMetadata();
 		}
-		updateMetadata();
 	}
 
 	public void updateLocation() {
@@ -78,18 +76,17 @@ public class ShulkerReplacement extends EntityReplacement1_8to1_9 {
 	}
 
 	public void updateMetadata() {
-		PacketWrapper metadataPacket = PacketWrapper.create(ClientboundPackets1_8.ENTITY_METADATA, null, user);
-		metadataPacket.write(Type.VAR_INT, entityId);
-
-		List<Metadata> metadataList = new ArrayList<>();
-		for (Metadata metadata : datawatcher) {
-			if (metadata.id() == 11 || metadata.id() == 12 || metadata.id() == 13) continue;
-			metadataList.add(new Metadata(metadata.id(), metadata.metaType(), metadata.getValue()));
-		}
+		List<Metadata> metadataList = datawatcher.copyDirty();
+		datawatcher.clearDirty();
+		metadataList.removeIf(metadata -> metadata.id() == 11 || metadata.id() == 12 || metadata.id() == 13);
+		if (metadataList.isEmpty()) return;
 		metadataList.add(new Metadata(11, MetaType1_9.VarInt, 2));
 
 		MetadataRewriter.transform(Entity1_10Types.EntityType.MAGMA_CUBE, metadataList);
+		if (metadataList.isEmpty()) return;
 
+		PacketWrapper metadataPacket = PacketWrapper.create(ClientboundPackets1_8.ENTITY_METADATA, null, user);
+		metadataPacket.write(Type.VAR_INT, entityId);
 		metadataPacket.write(Types1_8.METADATA_LIST, metadataList);
 
 		PacketUtil.sendPacket(metadataPacket, Protocol1_8To1_9.class);
@@ -19,6 +19,7 @@
 package com.viaversion.viarewind.protocol.protocol1_8to1_9.items;
 
 import com.viaversion.viarewind.protocol.protocol1_8to1_9.Protocol1_8To1_9;
+import com.viaversion.viarewind.utils.ItemCache;
 import com.viaversion.viaversion.api.minecraft.item.Item;
 import com.viaversion.viaversion.libs.opennbt.tag.builtin.*;
 import com.viaversion.viarewind.utils.Enchantments;
@@ -33,6 +34,7 @@ import static com.viaversion.viaversion.protocols.protocol1_9to1_8.ItemRewriter.
 
 @SuppressWarnings({"MismatchedQueryAndUpdateOfCollection", "unused"})
 public class ItemRewriter {
+	private static final ItemCache CACHE = new ItemCache(ItemRewriter::translateToClient);
 	private static Map<String, Integer> ENTTIY_NAME_TO_ID;
 	private static Map<Integer, String> ENTTIY_ID_TO_NAME;
 	private static Map<String, Integer> POTION_NAME_TO_ID;
@@ -100,6 +102,10 @@ public class ItemRewriter {
 	}
 
 	public static Item toClient(Item item) {
+		return CACHE.translate(item);
+	}
+
+	private static Item translateToClient(Item item) {
 		if (item==null) return null;
 
 		CompoundTag tag = item.tag();
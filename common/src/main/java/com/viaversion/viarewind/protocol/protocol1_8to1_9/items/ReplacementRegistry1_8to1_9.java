@@ -25,6 +25,7 @@ import com.viaversion.viarewind.storage.BlockState;
 
 public class ReplacementRegistry1_8to1_9 {
 	private static final ReplacementRegistry registry = new ReplacementRegistry();
+	private static final char[] blockStates;
 
 	static {
 		registry.registerItem(198, new Replacement(50, 0, "End Rod"));
@@ -85,6 +86,8 @@ public class ReplacementRegistry1_8to1_9 {
 		registry.registerItemBlock(217, new Replacement(166, 0, "Structure Void"));
 		registry.registerItemBlock(255, new Replacement(137, 0, "Structure Block"));
 		registry.registerItemBlock(397, 5, new Replacement(397, 0, "Dragon Head"));
+
+		blockStates = registry.createBlockStateTable();
 	}
 
 	public static Item replace(Item item) {
@@ -92,6 +95,8 @@ public class ReplacementRegistry1_8to1_9 {
 	}
 
 	public static int replace(int raw) {
+		if (raw >= 0 && raw < blockStates.length) return blockStates[raw];
+
 		int data = BlockState.extractData(raw);
 		Replacement replace = registry.replace(BlockState.extractId(raw), data);
 		if (replace == null) return raw;
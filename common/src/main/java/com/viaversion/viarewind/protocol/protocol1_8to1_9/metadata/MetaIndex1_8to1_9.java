@@ -18,44 +18,47 @@
 
 package com.viaversion.viarewind.protocol.protocol1_8to1_9.metadata;
 
-import com.viaversion.viaversion.api.minecraft.entities.Entity1_10Types;
 import com.viaversion.viaversion.protocols.protocol1_9to1_8.metadata.MetaIndex;
-import com.viaversion.viaversion.util.Pair;
+import com.viaversion.viaversion.api.minecraft.entities.Entity1_10Types;
 
-import java.util.HashMap;
-import java.util.Optional;
+import java.util.ArrayList;
+import java.util.List;
 
 public class MetaIndex1_8to1_9 {
 
-	private static final HashMap<Pair<Entity1_10Types.EntityType, Integer>, MetaIndex> metadataRewrites = new HashMap<>();
+	/**
+	 * The rewrite of every metadata index per entity type, inherited rewrites of parent types are already resolved
+	 */
+	private static final MetaIndex[][] metadataRewrites = new MetaIndex[Entity1_10Types.EntityType.values().length][];
 
 	static {
-		for (MetaIndex index : MetaIndex.values())
-			metadataRewrites.put(new Pair<>(index.getClazz(), index.getNewIndex()), index);
-	}
-
-	private static Optional<MetaIndex> getIndex(Entity1_10Types.EntityType type, int index) {
-		Pair pair = new Pair<>(type, index);
-		if (metadataRewrites.containsKey(pair)) {
-			return Optional.of(metadataRewrites.get(pair));
+		int maxIndex = 0;
+		for (MetaIndex index : MetaIndex.values()) {
+			maxIndex = Math.max(maxIndex, index.getNewIndex());
 		}
 
-		return Optional.empty();
-	}
-
-	public static MetaIndex searchIndex(Entity1_10Types.EntityType type, int index) {
-		Entity1_10Types.EntityType currentType = type;
-		do {
-			Optional<MetaIndex> optMeta = getIndex(currentType, index);
-
-			if (optMeta.isPresent()) {
-				return optMeta.get();
+		for (Entity1_10Types.EntityType type : Entity1_10Types.EntityType.values()) {
+			List<Entity1_10Types.EntityType> hierarchy = new ArrayList<>();
+			for (Entity1_10Types.EntityType currentType = type; currentType != null; currentType = currentType.getParent()) {
+				hierarchy.add(currentType);
 			}
 
-			currentType = currentType.getParent();
-		} while (currentType != null);
-
-		return null;
+			MetaIndex[] rewrites = new MetaIndex[maxIndex + 1];
+			// Walk down from the root type, so the most specific type wins
+			for (int i = hierarchy.size() - 1; i >= 0; i--) {
+				for (MetaIndex index : MetaIndex.values()) {
+					if (index.getClazz() == hierarchy.get(i)) {
+						rewrites[index.getNewIndex()] = index;
+					}
+				}
+			}
+			metadataRewrites[type.ordinal()] = rewrites;
+		}
 	}
 
+	public static MetaIndex searchIndex(Entity1_10Types.EntityType type, int index) {
+		if (type == null) return null;
+		MetaIndex[] rewrites = metadataRewrites[type.ordinal()];
+		return index >= 0 && index < rewrites.length ? rewrites[index] : null;
+	}
 }
@@ -28,96 +28,98 @@ import com.viaversion.viaversion.api.minecraft.metadata.types.MetaType1_8;
 import com.viaversion.viaversion.protocols.protocol1_9to1_8.metadata.MetaIndex;
 import com.viaversion.viarewind.ViaRewind;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
 public class MetadataRewriter {
 	public static void transform(Entity1_10Types.EntityType type, List<Metadata> list) {
-		for (Metadata entry : new ArrayList<>(list)) {
-			MetaIndex metaIndex = MetaIndex1_8to1_9.searchIndex(type, entry.id());
-			try {
-				if (metaIndex != null) {
-					if (metaIndex.getOldType() == MetaType1_8.NonExistent || metaIndex.getNewType()==null) {
-						list.remove(entry);
-						continue;
+		// Rewrite in place and move the kept entries to the front instead of removing them one by one
+		int size = 0;
+		for (int i = 0; i < list.size(); i++) {
+			Metadata entry = rewrite(type, list.get(i));
+			if (entry != null) list.set(size++, entry);
+		}
+		list.subList(size, list.size()).clear();
+	}
+
+	/**
+	 * @return the rewritten entry or null if it has to be removed
+	 */
+	private static Metadata rewrite(Entity1_10Types.EntityType type, Metadata entry) {
+		MetaIndex metaIndex = MetaIndex1_8to1_9.searchIndex(type, entry.id());
+		if (metaIndex == null) return null;
+		try {
+			if (metaIndex.getOldType() == MetaType1_8.NonExistent || metaIndex.getNewType()==null) {
+				return null;
+			}
+			Object value = entry.getValue();
+			entry.setMetaTypeUnsafe(metaIndex.getOldType());
+			entry.setId(metaIndex.getIndex());
+			switch (metaIndex.getNewType()) {
+				case Byte:
+					if (metaIndex.getOldType() == MetaType1_8.Byte) {
+						entry.setValue(value);
 					}
-					Object value = entry.getValue();
-					entry.setMetaTypeUnsafe(metaIndex.getOldType());
-					entry.setId(metaIndex.getIndex());
-					switch (metaIndex.getNewType()) {
-						case Byte:
-							if (metaIndex.getOldType() == MetaType1_8.Byte) {
-								entry.setValue(value);
-							}
-							if (metaIndex.getOldType() == MetaType1_8.Int) {
-								entry.setValue(((Byte) value).intValue());
-							}
-							break;
-						case OptUUID:
-							if (metaIndex.getOldType()!=MetaType1_8.String) {
-								list.remove(entry);
-								break;
-							}
-							UUID owner = (UUID) value;
-							if (owner == null) entry.setValue("");
-							else entry.setValue(owner.toString());
-							break;
-						case BlockID:
-							list.remove(entry);
-							list.add(new Metadata(metaIndex.getIndex(), MetaType1_8.Short, ((Integer) value).shortValue()));
-							break;
-						case VarInt:
-							if (metaIndex.getOldType() == MetaType1_8.Byte) {
-								entry.setValue(((Integer) value).byteValue());
-							}
-							if (metaIndex.getOldType() == MetaType1_8.Short) {
-								entry.setValue(((Integer) value).shortValue());
-							}
-							if (metaIndex.getOldType() == MetaType1_8.Int) {
-								entry.setValue(value);
-							}
-							break;
-						case Float:
-							entry.setValue(value);
-							break;
-						case String:
-							entry.setValue(value);
-							break;
-						case Boolean:
-							if (metaIndex == MetaIndex.AGEABLE_AGE) entry.setValue((byte)((Boolean) value ? -1 : 0));
-							else entry.setValue((byte)((Boolean) value ? 1 : 0));
-							break;
-						case Slot:
-							entry.setValue(ItemRewriter.toClient((Item) value));
-							break;
-						case Position:
-							Vector vector = (Vector) value;
-							entry.setValue(vector);
-							break;
-						case Vector3F:
-							EulerAngle angle = (EulerAngle) value;
-							entry.setValue(angle);
-							break;
-						case Chat:
-							entry.setValue(value);
-							break;
-						default:
-							ViaRewind.getPlatform().getLogger().warning("[Out] Unhandled MetaDataType: " + metaIndex.getNewType());
-							list.remove(entry);
-							break;
+					if (metaIndex.getOldType() == MetaType1_8.Int) {
+						entry.setValue(((Byte) value).intValue());
 					}
-
-					if (!metaIndex.getOldType().type().getOutputClass().isAssignableFrom(entry.getValue().getClass())) {
-						list.remove(entry);
+					break;
+				case OptUUID:
+					if (metaIndex.getOldType()!=MetaType1_8.String) {
+						return null;
 					}
+					UUID owner = (UUID) value;
+					if (owner == null) entry.setValue("");
+					else entry.setValue(owner.toString());
+					break;
+				case BlockID:
+					return new Metadata(metaIndex.getIndex(), MetaType1_8.Short, ((Integer) value).shortValue());
+				case VarInt:
+					if (metaIndex.getOldType() == MetaType1_8.Byte) {
+						entry.setValue(((Integer) value).byteValue());
+					}
+					if (metaIndex.getOldType() == MetaType1_8.Short) {
+						entry.setValue(((Integer) value).shortValue());
+					}
+					if (metaIndex.getOldType() == MetaType1_8.Int) {
+						entry.setValue(value);
+					}
+					break;
+				case Float:
+					entry.setValue(value);
+					break;
+				case String:
+					entry.setValue(value);
+					break;
+				case Boolean:
+					if (metaIndex == MetaIndex.AGEABLE_AGE) entry.setValue((byte)((Boolean) value ? -1 : 0));
+					else entry.setValue((byte)((Boolean) value ? 1 : 0));
+					break;
+				case Slot:
+					entry.setValue(ItemRewriter.toClient((Item) value));
+					break;
+				case Position:
+					Vector vector = (Vector) value;
+					entry.setValue(vector);
+					break;
+				case Vector3F:
+					EulerAngle angle = (EulerAngle) value;
+					entry.setValue(angle);
+					break;
+				case Chat:
+					entry.setValue(value);
+					break;
+				default:
+					ViaRewind.getPlatform().getLogger().warning("[Out] Unhandled MetaDataType: " + metaIndex.getNewType());
+					return null;
+			}
 
-				} else {
-					throw new Exception("Could not find valid metadata");
-				}
-			} catch (Exception e) {
-				list.remove(entry);
+			if (!metaIndex.getOldType().type().getOutputClass().isAssignableFrom(entry.getValue().getClass())) {
+				return null;
 			}
+			return entry;
+		} catch (Exception e) {
+			return null;
 		}
 	}
 
@@ -34,6 +34,8 @@ import com.viaversion.viaversion.api.protocol.remapper.PacketHandlers;
 import com.viaversion.viaversion.api.type.Type;
 import com.viaversion.viaversion.api.type.types.version.Types1_8;
 import com.viaversion.viaversion.api.type.types.version.Types1_9;
+import com.viaversion.viaversion.libs.fastutil.ints.IntArrayList;
+import com.viaversion.viaversion.libs.fastutil.ints.IntList;
 import com.viaversion.viaversion.protocols.protocol1_8.ClientboundPackets1_8;
 import com.viaversion.viaversion.protocols.protocol1_8.ServerboundPackets1_8;
 import com.viaversion.viaversion.protocols.protocol1_9to1_8.ClientboundPackets1_9;
@@ -349,22 +351,25 @@ public class EntityPackets {
 					EntityTracker entityTracker = packetWrapper.user().get(EntityTracker.class);
 					int vehicle = packetWrapper.read(Type.VAR_INT);
 					int count = packetWrapper.read(Type.VAR_INT);
-					ArrayList<Integer> passengers = new ArrayList<>();
-					for (int i = 0; i < count; i++) passengers.add(packetWrapper.read(Type.VAR_INT));
-					List<Integer> oldPassengers = entityTracker.getPassengers(vehicle);
+					IntList passengers = new IntArrayList(count);
+					for (int i = 0; i < count; i++) {
+						int passenger = packetWrapper.read(Type.VAR_INT);
+						passengers.add(passenger);
+					}
+					IntList oldPassengers = entityTracker.getPassengers(vehicle);
 					entityTracker.setPassengers(vehicle, passengers);
 					if (!oldPassengers.isEmpty()) {
-						for (Integer passenger : oldPassengers) {
+						for (int i = 0; i < oldPassengers.size(); i++) {
 							PacketWrapper detach = PacketWrapper.create(0x1B, null, packetWrapper.user());
-							detach.write(Type.INT, passenger);
+							detach.write(Type.INT, oldPassengers.getInt(i));
 							detach.write(Type.INT, -1);
 							detach.write(Type.BOOLEAN, false);
 							PacketUtil.sendPacket(detach, Protocol1_8To1_9.class);
 						}
 					}
 					for (int i = 0; i < count; i++) {
-						int v = i == 0 ? vehicle : passengers.get(i - 1);
-						int p = passengers.get(i);
+						int v = i == 0 ? vehicle : passengers.getInt(i - 1);
+						int p = passengers.getInt(i);
 						PacketWrapper attach = PacketWrapper.create(0x1B, null, packetWrapper.user());
 						attach.write(Type.INT, p);
 						attach.write(Type.INT, v);
@@ -18,9 +18,13 @@
 
 package com.viaversion.viarewind.protocol.protocol1_8to1_9.packets;
 
+import com.viaversion.viarewind.ViaRewind;
+import com.viaversion.viarewind.protocol.protocol1_8to1_9.Protocol1_8To1_9;
 import com.viaversion.viarewind.protocol.protocol1_8to1_9.storage.Windows;
+import com.viaversion.viarewind.utils.PacketUtil;
 import com.viaversion.viaversion.api.minecraft.item.Item;
 import com.viaversion.viaversion.api.protocol.Protocol;
+import com.viaversion.viaversion.api.protocol.packet.PacketWrapper;
 import com.viaversion.viaversion.api.protocol.remapper.PacketHandlers;
 import com.viaversion.viaversion.api.type.Type;
 import com.viaversion.viaversion.libs.gson.JsonParser;
@@ -65,7 +69,9 @@ public class InventoryPackets {
 				handler(packetWrapper -> {
 					short windowId = packetWrapper.get(Type.UNSIGNED_BYTE, 0);
 					String windowType = packetWrapper.get(Type.STRING, 0);
-					packetWrapper.user().get(Windows.class).put(windowId, windowType);
+					Windows windows = packetWrapper.user().get(Windows.class);
+					windows.put(windowId, windowType);
+					windows.getContents().remove(windowId);
 				});
 				handler(packetWrapper -> {
 					String type = packetWrapper.get(Type.STRING, 0);
@@ -108,6 +114,21 @@ public class InventoryPackets {
 					}
 					packetWrapper.write(Type.ITEM_ARRAY, items);
 				});
+				handler(packetWrapper -> {
+					short windowId = packetWrapper.get(Type.UNSIGNED_BYTE, 0);
+					if (windowId == 0 || !ViaRewind.getConfig().isWindowItemDiffing()) return;
+					Item[] items = packetWrapper.get(Type.ITEM_ARRAY, 0);
+					int[] changed = packetWrapper.user().get(Windows.class).getContents().diff(windowId, items);
+					if (changed == null) return;
+					packetWrapper.cancel();
+					for (int slot : changed) {
+						PacketWrapper setSlot = PacketWrapper.create(ClientboundPackets1_8.SET_SLOT, null, packetWrapper.user());
+						setSlot.write(Type.UNSIGNED_BYTE, windowId);
+						setSlot.write(Type.SHORT, (short) slot);
+						setSlot.write(Type.ITEM, items[slot]);
+						PacketUtil.sendPacket(setSlot, Protocol1_8To1_9.class, true, true);
+					}
+				});
 			}
 		});
 
@@ -141,6 +162,12 @@ public class InventoryPackets {
 						}
 					}
 				});
+				handler(packetWrapper -> {
+					if (packetWrapper.isCancelled()) return;
+					short windowId = packetWrapper.get(Type.UNSIGNED_BYTE, 0);
+					short slot = packetWrapper.get(Type.SHORT, 0);
+					packetWrapper.user().get(Windows.class).getContents().set(windowId, slot, packetWrapper.get(Type.ITEM, 0));
+				});
 			}
 		});
 
@@ -172,6 +199,8 @@ public class InventoryPackets {
 				handler(packetWrapper -> {
 					short windowId = packetWrapper.get(Type.UNSIGNED_BYTE, 0);
 					Windows windows = packetWrapper.user().get(Windows.class);
+					// The client changed the window on its own, so the next window items have to be sent in full
+					windows.getContents().remove(windowId);
 					String type = windows.get(windowId);
 					if (type == null) return;
 					if (type.equalsIgnoreCase("minecraft:brewing_stand")) {
@@ -67,7 +67,7 @@ public class PlayerPackets {
 					int action = packetWrapper.read(Type.VAR_INT);
 					BossBarStorage bossBarStorage = packetWrapper.user().get(BossBarStorage.class);
 					if (action == 0) {
-						bossBarStorage.add(uuid, ChatUtil.jsonToLegacy(packetWrapper.read(Type.COMPONENT)), packetWrapper.read(Type.FLOAT));
+						bossBarStorage.add(uuid, ChatUtil.readLegacy(packetWrapper, "boss_bar"), packetWrapper.read(Type.FLOAT));
 						packetWrapper.read(Type.VAR_INT);
 						packetWrapper.read(Type.VAR_INT);
 						packetWrapper.read(Type.UNSIGNED_BYTE);
@@ -76,7 +76,7 @@ public class PlayerPackets {
 					} else if (action == 2) {
 						bossBarStorage.updateHealth(uuid, packetWrapper.read(Type.FLOAT));
 					} else if (action == 3) {
-						String title = ChatUtil.jsonToLegacy(packetWrapper.read(Type.COMPONENT));
+						String title = ChatUtil.readLegacy(packetWrapper, "boss_bar");
 						bossBarStorage.updateTitle(uuid, title);
 					}
 				});
@@ -22,6 +22,7 @@ import com.viaversion.viarewind.protocol.protocol1_8to1_9.Protocol1_8To1_9;
 import com.viaversion.viarewind.protocol.protocol1_8to1_9.items.ReplacementRegistry1_8to1_9;
 import com.viaversion.viarewind.protocol.protocol1_8to1_9.sound.Effect;
 import com.viaversion.viarewind.protocol.protocol1_8to1_9.sound.SoundRemapper;
+import com.viaversion.viarewind.protocol.protocol1_8to1_9.storage.SoundDeduplicator;
 import com.viaversion.viarewind.utils.PacketUtil;
 import com.viaversion.viarewind.ViaRewind;
 import com.viaversion.viaversion.api.connection.UserConnection;
@@ -148,6 +149,7 @@ public class WorldPackets {
 				map(Type.INT);
 				map(Type.FLOAT);
 				map(Type.UNSIGNED_BYTE);
+				handler(WorldPackets::deduplicateSound);
 			}
 		});
 
@@ -342,7 +344,17 @@ public class WorldPackets {
 				map(Type.INT);
 				map(Type.FLOAT);
 				map(Type.UNSIGNED_BYTE);
+				handler(WorldPackets::deduplicateSound);
 			}
 		});
 	}
+
+	private static void deduplicateSound(PacketWrapper packetWrapper) throws Exception {
+		if (packetWrapper.isCancelled()) return;
+		SoundDeduplicator deduplicator = packetWrapper.user().get(SoundDeduplicator.class);
+		if (!deduplicator.allow(packetWrapper.get(Type.STRING, 0), packetWrapper.get(Type.INT, 0),
+				packetWrapper.get(Type.INT, 1), packetWrapper.get(Type.INT, 2), packetWrapper.get(Type.FLOAT, 0))) {
+			packetWrapper.cancel();
+		}
+	}
 }
@@ -18,15 +18,20 @@
 
 package com.viaversion.viarewind.protocol.protocol1_8to1_9.sound;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 
 public class SoundRemapper {
-	private static final HashMap<Integer, String> sounds1_9 = new HashMap<>();
+	private static final List<String> sounds1_9 = new ArrayList<>();
 	private static final HashMap<String, String> sound1_9to1_8 = new HashMap<>();
-	private static int id;
+	/**
+	 * 1.8 sound names indexed by 1.9 sound id, built once all sounds are registered
+	 */
+	private static final String[] oldNamesById;
 
 	private static void register1_9Sound(String sound1_9) {
-		sounds1_9.put(id++, sound1_9);
+		sounds1_9.add(sound1_9);
 	}
 
 	private static void registerSoundRemapping(String sound1_9, String sound1_8) {
@@ -34,9 +39,7 @@ public class SoundRemapper {
 	}
 
 	public static String oldNameFromId(int id) {
-		String sound1_9 = sounds1_9.get(id);
-		if (sound1_9==null) return null;
-		return getOldName(sound1_9);
+		return id >= 0 && id < oldNamesById.length ? oldNamesById[id] : null;
 	}
 
 	public static String getOldName(String sound1_9) {
@@ -881,5 +884,11 @@ public class SoundRemapper {
 		register1_9Sound("ui.button.click");
 		register1_9Sound("weather.rain");
 		register1_9Sound("weather.rain.above");
+
+		oldNamesById = new String[sounds1_9.size()];
+		for (int i = 0; i < oldNamesById.length; i++) {
+			oldNamesById[i] = getOldName(sounds1_9.get(i));
+		}
+		sounds1_9.clear();
 	}
 }
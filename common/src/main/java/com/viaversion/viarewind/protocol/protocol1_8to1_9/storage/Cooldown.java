@@ -22,6 +22,7 @@ import com.viaversion.viarewind.api.ViaRewindConfig;
 import com.viaversion.viarewind.protocol.protocol1_8to1_9.Protocol1_8To1_9;
 import com.viaversion.viarewind.utils.PacketUtil;
 import com.viaversion.viarewind.utils.Tickable;
+import com.viaversion.viarewind.utils.Ticker;
 import com.viaversion.viaversion.api.connection.StoredObject;
 import com.viaversion.viaversion.api.connection.UserConnection;
 import com.viaversion.viaversion.api.protocol.packet.PacketWrapper;
@@ -45,6 +46,7 @@ public class Cooldown extends StoredObject implements Tickable {
 
 	public Cooldown(final UserConnection user) {
 		super(user);
+		Ticker.register(this);
 
 		ViaRewindConfig.CooldownIndicator indicator;
 		try {
@@ -81,6 +83,12 @@ public class Cooldown extends StoredObject implements Tickable {
 		lastSend = true;
 	}
 
+	@Override
+	public boolean isActive() {
+		// Stay awake until the cooldown is over and the indicator is hidden again
+		return lastSend || !isCooldownOver();
+	}
+
 	private void showCooldown() {
 		if (cooldownIndicator == ViaRewindConfig.CooldownIndicator.TITLE) {
 			sendTitle("", getTitle(), 0, 2, 5);
@@ -164,7 +172,12 @@ public class Cooldown extends StoredObject implements Tickable {
 	public boolean hasCooldown() {
 		long time = System.currentTimeMillis() - lastHit;
 		double cooldown = restrain(((double) time) * attackSpeed / 1000d, 0, 1.5);
-		return cooldown > 0.1 && cooldown < 1.1;
+		return cooldown > 0.1 && !isCooldownOver();
+	}
+
+	private boolean isCooldownOver() {
+		long time = System.currentTimeMillis() - lastHit;
+		return ((double) time) * attackSpeed / 1000d >= 1.1;
 	}
 
 	public double getCooldown() {
@@ -198,6 +211,8 @@ public class Cooldown extends StoredObject implements Tickable {
 
 	public void setAttackSpeed(double attackSpeed) {
 		this.attackSpeed = attackSpeed;
+		// A slower attack speed can bring back a cooldown which was already over
+		Ticker.wake(this);
 	}
 
 	public void setAttackSpeed(double base, ArrayList<Pair<Byte, Double>> modifiers) {
@@ -220,13 +235,16 @@ public class Cooldown extends StoredObject implements Tickable {
 				modifiers.remove(j--);
 			}
 		}
+		Ticker.wake(this);
 	}
 
 	public void hit() {
 		lastHit = System.currentTimeMillis();
+		Ticker.wake(this);
 	}
 
 	public void setLastHit(long lastHit) {
 		this.lastHit = lastHit;
+		Ticker.wake(this);
 	}
 }
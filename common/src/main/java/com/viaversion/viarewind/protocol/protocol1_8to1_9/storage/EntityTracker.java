@@ -21,6 +21,7 @@ package com.viaversion.viarewind.protocol.protocol1_8to1_9.storage;
 import com.viaversion.viarewind.protocol.protocol1_8to1_9.Protocol1_8To1_9;
 import com.viaversion.viarewind.protocol.protocol1_8to1_9.metadata.MetadataRewriter;
 import com.viaversion.viarewind.replacement.EntityReplacement;
+import com.viaversion.viarewind.utils.MetadataBuffer;
 import com.viaversion.viaversion.api.connection.StoredObject;
 import com.viaversion.viaversion.api.connection.UserConnection;
 import com.viaversion.viaversion.api.data.entity.ClientEntityIdChangeListener;
@@ -30,24 +31,29 @@ import com.viaversion.viaversion.api.minecraft.metadata.Metadata;
 import com.viaversion.viaversion.api.protocol.packet.PacketWrapper;
 import com.viaversion.viaversion.api.type.Type;
 import com.viaversion.viaversion.api.type.types.version.Types1_8;
+import com.viaversion.viaversion.libs.fastutil.ints.Int2IntMap;
+import com.viaversion.viaversion.libs.fastutil.ints.Int2IntOpenHashMap;
+import com.viaversion.viaversion.libs.fastutil.ints.Int2ObjectMap;
+import com.viaversion.viaversion.libs.fastutil.ints.Int2ObjectOpenHashMap;
+import com.viaversion.viaversion.libs.fastutil.ints.IntList;
+import com.viaversion.viaversion.libs.fastutil.ints.IntLists;
 import com.viaversion.viaversion.protocols.protocol1_8.ClientboundPackets1_8;
 
-import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
 public class EntityTracker extends StoredObject implements ClientEntityIdChangeListener {
-	private final Map<Integer, List<Integer>> vehicleMap = new ConcurrentHashMap<>();
-	private final Map<Integer, Entity1_10Types.EntityType> clientEntityTypes = new ConcurrentHashMap<>();
-	private final Map<Integer, List<Metadata>> metadataBuffer = new ConcurrentHashMap<>();
-	private final Map<Integer, EntityReplacement> entityReplacements = new ConcurrentHashMap<>();
-	private final Map<Integer, Vector> entityOffsets = new ConcurrentHashMap<>();
+	private final Int2ObjectMap<IntList> vehicleMap = new Int2ObjectOpenHashMap<>();
+	private final Int2IntMap passengerVehicles = new Int2IntOpenHashMap();
+	private final Int2ObjectMap<Entity1_10Types.EntityType> clientEntityTypes = new Int2ObjectOpenHashMap<>();
+	private final Int2ObjectMap<MetadataBuffer> metadataBuffer = new Int2ObjectOpenHashMap<>();
+	private final Int2ObjectMap<EntityReplacement> entityReplacements = new Int2ObjectOpenHashMap<>();
+	private final Int2ObjectMap<Vector> entityOffsets = new Int2ObjectOpenHashMap<>();
 	private int playerId;
 	private int playerGamemode = 0;
 
 	public EntityTracker(UserConnection user) {
 		super(user);
+		passengerVehicles.defaultReturnValue(-1);
 	}
 
 	public void setPlayerId(int entityId) {
@@ -67,13 +73,18 @@ public class EntityTracker extends StoredObject implements ClientEntityIdChangeL
 	}
 
 	public void removeEntity(int entityId) {
-		vehicleMap.remove(entityId);
-		vehicleMap.forEach((vehicle, passengers) -> passengers.remove((Integer) entityId));
-		vehicleMap.entrySet().removeIf(entry -> entry.getValue().isEmpty());
+		IntList passengers = vehicleMap.remove(entityId);
+		if (passengers != null) {
+			for (int i = 0; i < passengers.size(); i++) {
+				passengerVehicles.remove(passengers.getInt(i));
+			}
+		}
+		removeFromVehicle(entityId);
 		clientEntityTypes.remove(entityId);
 		entityOffsets.remove(entityId);
-		if (entityReplacements.containsKey(entityId)) {
-			entityReplacements.remove(entityId).despawn();
+		EntityReplacement replacement = entityReplacements.remove(entityId);
+		if (replacement != null) {
+			replacement.despawn();
 		}
 	}
 
@@ -86,31 +97,56 @@ public class EntityTracker extends StoredObject implements ClientEntityIdChangeL
 	}
 
 	public void addToEntityOffset(int entityId, short relX, short relY, short relZ) {
-		entityOffsets.compute(entityId, (key, offset) -> {
-			if (offset == null) {
-				return new Vector(relX, relY, relZ);
-			} else {
-				return new Vector(offset.blockX() + relX, offset.blockY() + relY, offset.blockZ() + relZ);
-			}
-		});
+		Vector offset = entityOffsets.get(entityId);
+		if (offset == null) {
+			entityOffsets.put(entityId, new Vector(relX, relY, relZ));
+		} else {
+			entityOffsets.put(entityId, new Vector(offset.blockX() + relX, offset.blockY() + relY, offset.blockZ() + relZ));
+		}
 	}
 
 	public void setEntityOffset(int entityId, short relX, short relY, short relZ) {
-		entityOffsets.compute(entityId, (key, offset) -> new Vector(relX, relY, relZ));
+		entityOffsets.put(entityId, new Vector(relX, relY, relZ));
 	}
 
 	public void setEntityOffset(int entityId, Vector offset) {
 		entityOffsets.put(entityId, offset);
 	}
 
-	public List<Integer> getPassengers(int entityId) {
-		return vehicleMap.getOrDefault(entityId, new ArrayList<>());
+	public IntList getPassengers(int entityId) {
+		IntList passengers = vehicleMap.get(entityId);
+		return passengers != null ? passengers : IntLists.EMPTY_LIST;
 	}
 
-	public void setPassengers(int entityId, List<Integer> passengers) {
+	public void setPassengers(int entityId, IntList passengers) {
+		IntList oldPassengers = vehicleMap.remove(entityId);
+		if (oldPassengers != null) {
+			for (int i = 0; i < oldPassengers.size(); i++) {
+				passengerVehicles.remove(oldPassengers.getInt(i));
+			}
+		}
+		if (passengers.isEmpty()) return;
+
+		for (int i = 0; i < passengers.size(); i++) {
+			int passenger = passengers.getInt(i);
+			// An entity can only ride one vehicle at a time
+			removeFromVehicle(passenger);
+			passengerVehicles.put(passenger, entityId);
+		}
 		vehicleMap.put(entityId, passengers);
 	}
 
+	private void removeFromVehicle(int passenger) {
+		int vehicle = passengerVehicles.remove(passenger);
+		if (vehicle == -1) return;
+
+		IntList passengers = vehicleMap.get(vehicle);
+		if (passengers != null) {
+			passengers.rem(passenger);
+			if (passengers.isEmpty()) vehicleMap.remove(vehicle);
+		}
+	}
+
 	public void addEntityReplacement(EntityReplacement entityReplacement) {
 		entityReplacements.put(entityReplacement.getEntityId(), entityReplacement);
 	}
@@ -119,58 +155,51 @@ public class EntityTracker extends StoredObject implements ClientEntityIdChangeL
 		return entityReplacements.get(entityId);
 	}
 
-	public Map<Integer, Entity1_10Types.EntityType> getClientEntityTypes() {
+	public Int2ObjectMap<Entity1_10Types.EntityType> getClientEntityTypes() {
 		return this.clientEntityTypes;
 	}
 
 	public void addMetadataToBuffer(int entityID, List<Metadata> metadataList) {
-		if (this.metadataBuffer.containsKey(entityID)) {
-			this.metadataBuffer.get(entityID).addAll(metadataList);
-		} else if (!metadataList.isEmpty()) {
-			this.metadataBuffer.put(entityID, metadataList);
-		}
+		if (metadataList.isEmpty()) return;
+		this.metadataBuffer.computeIfAbsent(entityID, id -> new MetadataBuffer()).add(metadataList);
 	}
 
 	public List<Metadata> getBufferedMetadata(int entityId) {
-		return metadataBuffer.get(entityId);
+		MetadataBuffer buffer = metadataBuffer.get(entityId);
+		return buffer != null ? buffer.toList() : null;
 	}
 
 	public boolean isInsideVehicle(int entityId) {
-		for (List<Integer> vehicle : vehicleMap.values()) {
-			if (vehicle.contains(entityId)) return true;
-		}
-		return false;
+		return passengerVehicles.containsKey(entityId);
 	}
 
 	public int getVehicle(int passenger) {
-		for (Map.Entry<Integer, List<Integer>> vehicle : vehicleMap.entrySet()) {
-			if (vehicle.getValue().contains(passenger)) return vehicle.getKey();
-		}
-		return -1;
+		return passengerVehicles.get(passenger);
 	}
 
 	public boolean isPassenger(int vehicle, int passenger) {
-		return vehicleMap.containsKey(vehicle) && vehicleMap.get(vehicle).contains(passenger);
+		return passengerVehicles.get(passenger) == vehicle;
 	}
 
 	public void sendMetadataBuffer(int entityId) {
-		if (!this.metadataBuffer.containsKey(entityId)) return;
-		if (entityReplacements.containsKey(entityId)) {
-			entityReplacements.get(entityId).updateMetadata(this.metadataBuffer.remove(entityId));
+		MetadataBuffer buffer = this.metadataBuffer.remove(entityId);
+		if (buffer == null) return;
+		List<Metadata> metadataList = buffer.toList();
+		EntityReplacement replacement = entityReplacements.get(entityId);
+		if (replacement != null) {
+			replacement.updateMetadata(metadataList);
 		} else {
 			PacketWrapper wrapper = PacketWrapper.create(ClientboundPackets1_8.ENTITY_METADATA, this.getUser());
 			wrapper.write(Type.VAR_INT, entityId);
-			wrapper.write(Types1_8.METADATA_LIST, this.metadataBuffer.get(entityId));
-			MetadataRewriter.transform(this.getClientEntityTypes().get(entityId), this.metadataBuffer.get(entityId));
-			if (!this.metadataBuffer.get(entityId).isEmpty()) {
+			wrapper.write(Types1_8.METADATA_LIST, metadataList);
+			MetadataRewriter.transform(this.getClientEntityTypes().get(entityId), metadataList);
+			if (!metadataList.isEmpty()) {
 				try {
 					wrapper.send(Protocol1_8To1_9.class);
 				} catch (Exception ex) {
 					ex.printStackTrace();
 				}
 			}
-
-			this.metadataBuffer.remove(entityId);
 		}
 	}
 
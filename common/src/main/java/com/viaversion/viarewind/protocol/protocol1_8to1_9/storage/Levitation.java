@@ -21,6 +21,7 @@ package com.viaversion.viarewind.protocol.protocol1_8to1_9.storage;
 import com.viaversion.viarewind.protocol.protocol1_8to1_9.Protocol1_8To1_9;
 import com.viaversion.viarewind.utils.PacketUtil;
 import com.viaversion.viarewind.utils.Tickable;
+import com.viaversion.viarewind.utils.Ticker;
 import com.viaversion.viaversion.api.connection.StoredObject;
 import com.viaversion.viaversion.api.connection.UserConnection;
 import com.viaversion.viaversion.api.protocol.packet.PacketWrapper;
@@ -32,6 +33,7 @@ public class Levitation extends StoredObject implements Tickable {
 
 	public Levitation(UserConnection user) {
 		super(user);
+		Ticker.register(this);
 	}
 
 	@Override
@@ -49,8 +51,14 @@ public class Levitation extends StoredObject implements Tickable {
 		PacketUtil.sendPacket(packet, Protocol1_8To1_9.class);
 	}
 
+	@Override
+	public boolean isActive() {
+		return active;
+	}
+
 	public void setActive(boolean active) {
 		this.active = active;
+		if (active) Ticker.wake(this);
 	}
 
 	public void setAmplifier(int amplifier) {
@@ -0,0 +1,97 @@
+/*
+ * This file is part of ViaRewind - https://github.com/ViaVersion/ViaRewind
+ * Copyright (C) 2016-2023 ViaVersion and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.viaversion.viarewind.protocol.protocol1_8to1_9.storage;
+
+import com.viaversion.viarewind.ViaRewind;
+import com.viaversion.viaversion.api.connection.StoredObject;
+import com.viaversion.viaversion.api.connection.UserConnection;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Drops sounds which were already played at the same block with the same volume within the configured window,
+ * like the bursts of identical sounds sent by combat and redstone farms.
+ * The window is read from the config for every sound, so reloading the config applies to connected players.
+ */
+public class SoundDeduplicator extends StoredObject {
+	private final Set<Sound> played = new HashSet<>();
+	private long windowStart;
+
+	public SoundDeduplicator(UserConnection user) {
+		super(user);
+	}
+
+	/**
+	 * @param name   the 1.8 sound name
+	 * @param x      the x coordinate multiplied by 8
+	 * @param y      the y coordinate multiplied by 8
+	 * @param z      the z coordinate multiplied by 8
+	 * @param volume the volume
+	 * @return false if the sound was already played within the current window
+	 */
+	public boolean allow(String name, int x, int y, int z, float volume) {
+		long window = ViaRewind.getConfig().getSoundDeduplicationWindow() * 1000000L;
+		if (window <= 0) {
+			played.clear();
+			return true;
+		}
+
+		long now = System.nanoTime();
+		if (now - windowStart >= window) {
+			played.clear();
+			windowStart = now;
+		}
+
+		return played.add(new Sound(name, x >> 3, y >> 3, z >> 3, volume));
+	}
+
+	private static class Sound {
+		private final String name;
+		private final int x, y, z;
+		private final float volume;
+
+		private Sound(String name, int x, int y, int z, float volume) {
+			this.name = name;
+			this.x = x;
+			this.y = y;
+			this.z = z;
+			this.volume = volume;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) return true;
+			if (!(o instanceof Sound)) return false;
+			Sound sound = (Sound) o;
+			return x == sound.x && y == sound.y && z == sound.z
+					&& Float.compare(volume, sound.volume) == 0 && name.equals(sound.name);
+		}
+
+		@Override
+		public int hashCode() {
+			int result = name.hashCode();
+			result = 31 * result + x;
+			result = 31 * result + y;
+			result = 31 * result + z;
+			result = 31 * result + Float.floatToIntBits(volume);
+			return result;
+		}
+	}
+}
@@ -20,6 +20,7 @@ package com.viaversion.viarewind.protocol.protocol1_8to1_9.storage;
 
 import com.viaversion.viarewind.protocol.protocol1_8to1_9.Protocol1_8To1_9;
 import com.viaversion.viarewind.utils.PacketUtil;
+import com.viaversion.viarewind.utils.WindowContents;
 import com.viaversion.viaversion.api.connection.StoredObject;
 import com.viaversion.viaversion.api.connection.UserConnection;
 import com.viaversion.viaversion.api.minecraft.item.DataItem;
@@ -36,6 +37,7 @@ import java.util.HashMap;
 public class Windows extends StoredObject {
 	private final HashMap<Short, String> types = new HashMap<>();
 	private final HashMap<Short, Item[]> brewingItems = new HashMap<>();
+	private final WindowContents contents = new WindowContents();
 
 	public Windows(UserConnection user) {
 		super(user);
@@ -52,6 +54,11 @@ public class Windows extends StoredObject {
 	public void remove(short windowId) {
 		types.remove(windowId);
 		brewingItems.remove(windowId);
+		contents.remove(windowId);
+	}
+
+	public WindowContents getContents() {
+		return contents;
 	}
 
 	public Item[] getBrewingItems(short windowId) {
@@ -66,6 +73,8 @@ public class Windows extends StoredObject {
 	public static void updateBrewingStand(UserConnection user, Item blazePowder, short windowId) {
 		if (blazePowder != null && blazePowder.identifier() != 377) return;
 		int amount = blazePowder == null ? 0 : blazePowder.amount();
+		// Reopening the window clears it on the client
+		user.get(Windows.class).contents.remove(windowId);
 		PacketWrapper openWindow = PacketWrapper.create(ClientboundPackets1_8.OPEN_WINDOW, user);
 		openWindow.write(Type.UNSIGNED_BYTE, windowId);
 		openWindow.write(Type.STRING, "minecraft:brewing_stand");
@@ -0,0 +1,97 @@
+/*
+ * This file is part of ViaRewind - https://github.com/ViaVersion/ViaRewind
+ * Copyright (C) 2016-2023 ViaVersion and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.viaversion.viarewind.replacement;
+
+import com.viaversion.viaversion.api.minecraft.metadata.Metadata;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Holds the metadata of an {@link EntityReplacement} by index and remembers which entries changed since the last
+ * {@link #clearDirty()}, so replacements only have to resend what the client doesn't know yet.
+ */
+public class DataWatcher {
+	private Metadata[] entries = new Metadata[32];
+	private final BitSet dirty = new BitSet();
+
+	/**
+	 * @param metadataList the received metadata, entries are stored as they are and must not be modified afterward
+	 * @return true if at least one entry changed
+	 */
+	public boolean update(List<Metadata> metadataList) {
+		boolean changed = false;
+		for (Metadata metadata : metadataList) {
+			int id = metadata.id();
+			if (id < 0) continue;
+			if (id >= entries.length) {
+				entries = Arrays.copyOf(entries, Math.max(id + 1, entries.length * 2));
+			}
+			Metadata previous = entries[id];
+			if (previous != null && previous.metaType() == metadata.metaType() && Objects.equals(previous.getValue(), metadata.getValue())) {
+				continue;
+			}
+			entries[id] = metadata;
+			dirty.set(id);
+			changed = true;
+		}
+		return changed;
+	}
+
+	public Metadata get(int id) {
+		return id >= 0 && id < entries.length ? entries[id] : null;
+	}
+
+	public boolean isDirty(int id) {
+		return dirty.get(id);
+	}
+
+	public void clearDirty() {
+		dirty.clear();
+	}
+
+	/**
+	 * @return copies of all entries, ordered by their index
+	 */
+	public List<Metadata> copyAll() {
+		List<Metadata> metadataList = new ArrayList<>();
+		for (Metadata metadata : entries) {
+			if (metadata != null) metadataList.add(copy(metadata));
+		}
+		return metadataList;
+	}
+
+	/**
+	 * @return copies of the entries which changed since the last {@link #clearDirty()}, ordered by their index
+	 */
+	public List<Metadata> copyDirty() {
+		List<Metadata> metadataList = new ArrayList<>(dirty.cardinality());
+		for (int id = dirty.nextSetBit(0); id >= 0; id = dirty.nextSetBit(id + 1)) {
+			metadataList.add(copy(entries[id]));
+		}
+		return metadataList;
+	}
+
+	private static Metadata copy(Metadata metadata) {
+		return new Metadata(metadata.id(), metadata.metaType(), metadata.getValue());
+	}
+}
@@ -18,6 +18,7 @@
 
 package com.viaversion.viarewind.replacement;
 
+import com.viaversion.viarewind.storage.BlockState;
 import com.viaversion.viaversion.api.minecraft.item.Item;
 import com.viaversion.viaversion.libs.fastutil.ints.Int2ObjectMap;
 import com.viaversion.viaversion.libs.fastutil.ints.Int2ObjectOpenHashMap;
@@ -65,6 +66,21 @@ public class ReplacementRegistry {
 		return replacement;
 	}
 
+	/**
+	 * Creates a lookup table which maps every raw block state (id << 4 | data) to its replaced raw block state
+	 *
+	 * @return the lookup table indexed by the raw block state
+	 */
+	public char[] createBlockStateTable() {
+		char[] table = new char[1 << 16];
+		for (int raw = 0; raw < table.length; raw++) {
+			int data = BlockState.extractData(raw);
+			Replacement replacement = replace(BlockState.extractId(raw), data);
+			table[raw] = (char) (replacement != null ? BlockState.stateToRaw(replacement.getId(), replacement.replaceData(data)) : raw);
+		}
+		return table;
+	}
+
 	public static int combine(int id, int data) {
 		return (id << 16) | (data & 0xFFFF);
 	}
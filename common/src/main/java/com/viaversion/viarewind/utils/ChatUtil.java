@@ -20,6 +20,8 @@ package com.viaversion.viarewind.utils;
 
 import com.viaversion.viarewind.ViaRewind;
 import com.viaversion.viaversion.api.protocol.packet.ClientboundPacketType;
+import com.viaversion.viaversion.api.protocol.packet.PacketWrapper;
+import com.viaversion.viaversion.api.type.Type;
 import com.viaversion.viaversion.libs.gson.JsonElement;
 import com.viaversion.viaversion.libs.gson.JsonObject;
 import com.viaversion.viaversion.libs.gson.JsonParser;
@@ -29,6 +31,7 @@ import com.viaversion.viaversion.protocols.protocol1_13to1_12_2.ChatRewriter;
 import com.viaversion.viaversion.protocols.protocol1_13to1_12_2.Protocol1_13To1_12_2;
 import com.viaversion.viaversion.rewriter.ComponentRewriter;
 
+import java.util.Map;
 import java.util.logging.Level;
 import java.util.regex.Pattern;
 
@@ -43,6 +46,7 @@ public class ChatUtil {
 			}
 		}
 	};
+	private static final LegacyTextCache CACHE = new LegacyTextCache();
 
 	public static String jsonToLegacy(String json) {
 		if (json == null || json.equals("null") || json.isEmpty()) return "";
@@ -54,6 +58,72 @@ public class ChatUtil {
 		return "";
 	}
 
+	/**
+	 * Converts a component like {@link #jsonToLegacy(String)}, but remembers the result for components which are likely
+	 * to be sent to many players
+	 *
+	 * @param site the name of the call site the cache stats are counted for
+	 * @param json the json component
+	 * @return the legacy text
+	 */
+	public static String jsonToLegacy(String site, String json) {
+		if (json == null || json.equals("null") || json.isEmpty()) return "";
+		String legacy = CACHE.get(site, json);
+		if (legacy == null) {
+			CACHE.put(json, legacy = jsonToLegacy(json));
+		}
+		return legacy;
+	}
+
+	/**
+	 * Only used for components an earlier protocol already parsed, they have to be serialized again to be looked up
+	 */
+	private static String jsonToLegacy(String site, JsonElement component) {
+		if (component.isJsonNull() || component.isJsonPrimitive()) return jsonToLegacy(component);
+		String json = component.toString();
+		String legacy = CACHE.get(site, json);
+		if (legacy == null) {
+			CACHE.put(json, legacy = jsonToLegacy(component));
+		}
+		return legacy;
+	}
+
+	/**
+	 * Reads a component and converts it through the cache. The raw json is read and used as the key, it is only parsed
+	 * on a cache miss. Components which were already parsed by an earlier protocol in the pipeline are read as they are.
+	 *
+	 * @param wrapper the packet to read from
+	 * @param site    the name of the call site the cache stats are counted for
+	 * @return the legacy text
+	 */
+	public static String readLegacy(PacketWrapper wrapper, String site) throws Exception {
+		if (wrapper.isReadable(Type.COMPONENT, 0)) {
+			return jsonToLegacy(site, wrapper.read(Type.COMPONENT));
+		}
+		return jsonToLegacy(site, wrapper.read(Type.STRING));
+	}
+
+	/**
+	 * Reads an optional component like {@link #readLegacy(PacketWrapper, String)}
+	 *
+	 * @return the legacy text or null if the component isn't present
+	 */
+	public static String readOptionalLegacy(PacketWrapper wrapper, String site) throws Exception {
+		if (wrapper.isReadable(Type.OPTIONAL_COMPONENT, 0)) {
+			JsonElement component = wrapper.read(Type.OPTIONAL_COMPONENT);
+			return component != null ? jsonToLegacy(site, component) : null;
+		}
+		String json = wrapper.read(Type.OPTIONAL_STRING);
+		return json != null ? jsonToLegacy(site, json) : null;
+	}
+
+	/**
+	 * @return the legacy text cache stats by call site name
+	 */
+	public static Map<String, LegacyTextCache.Stats> getCacheStats() {
+		return CACHE.getStats();
+	}
+
 	public static String jsonToLegacy(JsonElement component) {
 		if (component.isJsonNull() || component.isJsonArray() && component.getAsJsonArray().isEmpty() || component.isJsonObject() && component.getAsJsonObject().size() == 0) {
 			return "";
@@ -0,0 +1,83 @@
+/*
+ * This file is part of ViaRewind - https://github.com/ViaVersion/ViaRewind
+ * Copyright (C) 2016-2023 ViaVersion and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.viaversion.viarewind.utils;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Thread local for values holding native resources, like deflaters, which have to be released on disable.
+ * The values of all threads are remembered, so they can be closed from the disabling thread. Threads which still
+ * use it afterwards get a new value, the values of threads which died are forgotten once they are collected.
+ */
+public class ClosableThreadLocal<T> {
+	private final ThreadLocal<Entry<T>> local = ThreadLocal.withInitial(this::create);
+	private final Set<Entry<T>> entries = Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+	private final Supplier<T> factory;
+	private final Consumer<T> closer;
+
+	/**
+	 * @param factory creates the value of a thread
+	 * @param closer  releases the resources of a value
+	 */
+	public ClosableThreadLocal(Supplier<T> factory, Consumer<T> closer) {
+		this.factory = factory;
+		this.closer = closer;
+	}
+
+	public T get() {
+		Entry<T> entry = local.get();
+		if (entry.closed) {
+			local.remove();
+			entry = local.get();
+		}
+		return entry.value;
+	}
+
+	/**
+	 * Closes the values of all threads
+	 */
+	public void close() {
+		synchronized (entries) {
+			for (Entry<T> entry : entries) {
+				entry.closed = true;
+				closer.accept(entry.value);
+			}
+			entries.clear();
+		}
+	}
+
+	private Entry<T> create() {
+		Entry<T> entry = new Entry<>(factory.get());
+		entries.add(entry);
+		return entry;
+	}
+
+	private static class Entry<T> {
+		private final T value;
+		private volatile boolean closed;
+
+		private Entry(T value) {
+			this.value = value;
+		}
+	}
+}
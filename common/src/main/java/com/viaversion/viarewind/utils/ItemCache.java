@@ -0,0 +1,92 @@
+/*
+ * This file is part of ViaRewind - https://github.com/ViaVersion/ViaRewind
+ * Copyright (C) 2016-2023 ViaVersion and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.viaversion.viarewind.utils;
+
+import com.viaversion.viarewind.ViaRewind;
+import com.viaversion.viaversion.api.minecraft.item.Item;
+import com.viaversion.viaversion.libs.opennbt.tag.builtin.CompoundTag;
+
+import java.util.function.UnaryOperator;
+
+/**
+ * Remembers translated items with nbt data for all connections, so identical items like the ones in menus are only
+ * translated once. Entries are identified by the id, data, amount and nbt data of the untranslated item.
+ * Every call returns its own copy, so callers are free to modify the returned item.
+ */
+public class ItemCache {
+	private final UnaryOperator<Item> translator;
+	private final LRUCache<Key, Item> entries = new LRUCache<>(() -> ViaRewind.getConfig().getItemCacheSize());
+
+	/**
+	 * @param translator translates an item, it may modify and return the given item
+	 */
+	public ItemCache(UnaryOperator<Item> translator) {
+		this.translator = translator;
+	}
+
+	public Item translate(Item item) {
+		if (item == null) return null;
+		// Items without nbt data are cheap to translate and would only push out the expensive ones
+		if (item.tag() == null || !entries.isEnabled()) return translator.apply(item);
+
+		Item translated = entries.get(new Key(item));
+		if (translated != null) return translated.copy();
+
+		// The translator modifies the item, so the key needs its own copy
+		Key key = new Key(item.copy());
+		translated = translator.apply(item);
+		if (translated != null) entries.put(key, translated.copy());
+		return translated;
+	}
+
+	private static class Key {
+		private final int identifier;
+		private final short data;
+		private final int amount;
+		private final CompoundTag tag;
+		private final int hash;
+
+		private Key(Item item) {
+			this.identifier = item.identifier();
+			this.data = item.data();
+			this.amount = item.amount();
+			this.tag = item.tag();
+
+			int hash = identifier;
+			hash = 31 * hash + data;
+			hash = 31 * hash + amount;
+			hash = 31 * hash + (tag != null ? tag.hashCode() : 0);
+			this.hash = hash;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) return true;
+			if (o == null || getClass() != o.getClass()) return false;
+			Key key = (Key) o;
+			return hash == key.hash && identifier == key.identifier && data == key.data && amount == key.amount
+					&& (tag != null ? tag.equals(key.tag) : key.tag == null);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+	}
+}
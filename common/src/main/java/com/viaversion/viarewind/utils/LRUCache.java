@@ -0,0 +1,61 @@
+/*
+ * This file is part of ViaRewind - https://github.com/ViaVersion/ViaRewind
+ * Copyright (C) 2016-2023 ViaVersion and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.viaversion.viarewind.utils;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.IntSupplier;
+
+/**
+ * Thread safe map which evicts its least recently used entries once it holds more than the max amount of entries.
+ * The max amount is read on every insertion, so config changes apply without recreating the cache.
+ */
+public class LRUCache<K, V> {
+	private final Map<K, V> entries = new LinkedHashMap<>(16, 0.75F, true);
+	private final IntSupplier maxEntries;
+
+	/**
+	 * @param maxEntries supplies the max amount of entries, 0 or less disables the cache
+	 */
+	public LRUCache(IntSupplier maxEntries) {
+		this.maxEntries = maxEntries;
+	}
+
+	public boolean isEnabled() {
+		return maxEntries.getAsInt() > 0;
+	}
+
+	public synchronized V get(K key) {
+		return entries.get(key);
+	}
+
+	public synchronized void put(K key, V value) {
+		int maxEntries = this.maxEntries.getAsInt();
+		if (maxEntries > 0) {
+			entries.put(key, value);
+		}
+
+		Iterator<V> iterator = entries.values().iterator();
+		while (entries.size() > maxEntries && iterator.hasNext()) {
+			iterator.next();
+			iterator.remove();
+		}
+	}
+}
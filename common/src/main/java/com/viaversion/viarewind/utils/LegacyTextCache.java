@@ -0,0 +1,78 @@
+/*
+ * This file is part of ViaRewind - https://github.com/ViaVersion/ViaRewind
+ * Copyright (C) 2016-2023 ViaVersion and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.viaversion.viarewind.utils;
+
+import com.viaversion.viarewind.ViaRewind;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Remembers legacy texts converted from json components for all connections, so components like boss bars, signs
+ * and tab list names which are sent to many players are only converted once.
+ * Hits and misses are counted separately for every call site.
+ */
+public class LegacyTextCache {
+	private final LRUCache<String, String> entries = new LRUCache<>(() -> ViaRewind.getConfig().getLegacyTextCacheSize());
+	private final Map<String, Stats> stats = new ConcurrentHashMap<>();
+
+	/**
+	 * @param site the name of the call site the stats are counted for
+	 * @param json the json component
+	 * @return the legacy text or null if it isn't cached
+	 */
+	public String get(String site, String json) {
+		if (!entries.isEnabled()) return null;
+
+		String legacy = entries.get(json);
+		Stats stats = this.stats.computeIfAbsent(site, key -> new Stats());
+		if (legacy == null) {
+			stats.misses.incrementAndGet();
+		} else {
+			stats.hits.incrementAndGet();
+		}
+		return legacy;
+	}
+
+	public void put(String json, String legacy) {
+		entries.put(json, legacy);
+	}
+
+	/**
+	 * @return the stats by call site name
+	 */
+	public Map<String, Stats> getStats() {
+		return Collections.unmodifiableMap(stats);
+	}
+
+	public static class Stats {
+		private final AtomicLong hits = new AtomicLong();
+		private final AtomicLong misses = new AtomicLong();
+
+		public long getHits() {
+			return hits.get();
+		}
+
+		public long getMisses() {
+			return misses.get();
+		}
+	}
+}
@@ -0,0 +1,61 @@
+/*
+ * This file is part of ViaRewind - https://github.com/ViaVersion/ViaRewind
+ * Copyright (C) 2016-2023 ViaVersion and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.viaversion.viarewind.utils;
+
+import com.viaversion.viaversion.api.minecraft.metadata.Metadata;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Collects the metadata of an entity that hasn't been spawned yet.
+ * Entries are stored by their index, so a later write replaces the earlier one instead of being sent twice.
+ */
+public class MetadataBuffer {
+	private Metadata[] entries = new Metadata[32];
+	private int size;
+
+	public void add(List<Metadata> metadataList) {
+		for (Metadata metadata : metadataList) {
+			add(metadata);
+		}
+	}
+
+	public void add(Metadata metadata) {
+		int id = metadata.id();
+		if (id < 0) return;
+		if (id >= entries.length) {
+			entries = Arrays.copyOf(entries, Math.max(id + 1, entries.length * 2));
+		}
+		if (entries[id] == null) size++;
+		entries[id] = metadata;
+	}
+
+	/**
+	 * @return a new mutable list of the buffered entries, ordered by their index
+	 */
+	public List<Metadata> toList() {
+		List<Metadata> metadataList = new ArrayList<>(size);
+		for (Metadata metadata : entries) {
+			if (metadata != null) metadataList.add(metadata);
+		}
+		return metadataList;
+	}
+}
@@ -20,4 +20,13 @@ package com.viaversion.viarewind.utils;
 
 public interface Tickable {
 	void tick();
+
+	/**
+	 * Dormant tickables aren't ticked until they are woken up again with {@link Ticker#wake}
+	 *
+	 * @return false if there is nothing to tick
+	 */
+	default boolean isActive() {
+		return true;
+	}
 }
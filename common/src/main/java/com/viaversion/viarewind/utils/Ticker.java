@@ -18,23 +18,185 @@
 
 package com.viaversion.viarewind.utils;
 
+import com.viaversion.viarewind.ViaRewind;
 import com.viaversion.viaversion.api.Via;
+import com.viaversion.viaversion.api.connection.StoredObject;
+import com.viaversion.viaversion.api.connection.UserConnection;
+import io.netty.channel.Channel;
+import io.netty.channel.EventLoop;
 
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+/**
+ * Ticks all registered {@link Tickable} storages every 50 milliseconds.
+ * Storages are ticked on the event loop of their connection, connections without a channel are ticked on the main thread.
+ * Inactive storages are put to sleep and skipped until they are woken up by {@link #wake}.
+ * Storages which are not stored in their connection, or whose connection is gone, are dropped.
+ */
 public class Ticker {
-	private static boolean init = false;
+	private static final Map<EventLoop, Shard> SHARDS = new ConcurrentHashMap<>();
+	private static volatile Shard syncShard;
+
+	/**
+	 * Registers a storage to be ticked until it is unregistered, replaced in its connection or the connection is closed
+	 *
+	 * @param tickable the storage to tick
+	 */
+	public static <T extends StoredObject & Tickable> void register(T tickable) {
+		getShard(tickable.getUser()).added.add(tickable);
+
+		Channel channel = tickable.getUser().getChannel();
+		if (channel != null) {
+			channel.closeFuture().addListener(future -> unregister(tickable));
+		}
+	}
+
+	/**
+	 * Stops ticking a storage
+	 *
+	 * @param tickable the storage to stop ticking
+	 */
+	public static <T extends StoredObject & Tickable> void unregister(T tickable) {
+		getShard(tickable.getUser()).removed.add(tickable);
+	}
+
+	/**
+	 * Wakes up a dormant storage, should be called whenever its state changes so that {@link Tickable#isActive()} may return true
+	 *
+	 * @param tickable the storage to wake up
+	 */
+	public static <T extends StoredObject & Tickable> void wake(T tickable) {
+		getShard(tickable.getUser()).woken.add(tickable);
+	}
+
+	/**
+	 * @return the amount of storages which are currently ticked
+	 */
+	public static int getActiveCount() {
+		int count = syncShard != null ? syncShard.activeCount : 0;
+		for (Shard shard : SHARDS.values()) {
+			count += shard.activeCount;
+		}
+		return count;
+	}
+
+	/**
+	 * @return the amount of storages which are currently sleeping
+	 */
+	public static int getDormantCount() {
+		int count = syncShard != null ? syncShard.dormantCount : 0;
+		for (Shard shard : SHARDS.values()) {
+			count += shard.dormantCount;
+		}
+		return count;
+	}
+
+	private static Shard getShard(UserConnection user) {
+		Channel channel = user.getChannel();
+		if (channel == null) {
+			synchronized (Ticker.class) {
+				if (syncShard == null) {
+					syncShard = new Shard();
+					Via.getPlatform().runRepeatingSync(syncShard, 1L);
+				}
+				return syncShard;
+			}
+		}
+
+		return SHARDS.computeIfAbsent(channel.eventLoop(), eventLoop -> {
+			Shard shard = new Shard();
+			eventLoop.scheduleAtFixedRate(shard, 50L, 50L, TimeUnit.MILLISECONDS);
+			return shard;
+		});
+	}
+
+	private static class Shard implements Runnable {
+		private final Queue<StoredObject> added = new ConcurrentLinkedQueue<>();
+		private final Queue<StoredObject> removed = new ConcurrentLinkedQueue<>();
+		private final Queue<StoredObject> woken = new ConcurrentLinkedQueue<>();
+		private final List<Entry> tickables = new ArrayList<>();
+		// Storages are only weakly referenced, connections without a channel have no close hook to unregister them
+		private final Map<StoredObject, Entry> dormant = new WeakHashMap<>();
+		private volatile int activeCount;
+		private volatile int dormantCount;
+
+		@Override
+		public void run() {
+			StoredObject storage;
+			while ((storage = added.poll()) != null) {
+				tickables.add(new Entry(storage));
+			}
+			while ((storage = removed.poll()) != null) {
+				if (dormant.remove(storage) == null) {
+					StoredObject target = storage;
+					tickables.removeIf(entry -> entry.storage.get() == target);
+				}
+			}
+			while ((storage = woken.poll()) != null) {
+				Entry entry = dormant.remove(storage);
+				if (entry != null) {
+					tickables.add(entry);
+				}
+			}
+
+			Iterator<Entry> iterator = tickables.iterator();
+			while (iterator.hasNext()) {
+				Entry entry = iterator.next();
+				storage = entry.storage.get();
+				if (storage == null) {
+					// The connection is gone
+					iterator.remove();
+					continue;
+				}
+				UserConnection user = storage.getUser();
+				if (user.getChannel() != null && !user.getChannel().isOpen()) {
+					iterator.remove();
+					continue;
+				}
+
+				StoredObject stored = user.get(storage.getClass());
+				if (stored != storage) {
+					// Replaced by a new instance, or not stored at all after being given one pass to be stored
+					if (stored != null || entry.unstoredPasses++ > 0) iterator.remove();
+					continue;
+				}
+				entry.unstoredPasses = 0;
+
+				Tickable tickable = (Tickable) storage;
+				if (!tickable.isActive()) {
+					iterator.remove();
+					dormant.put(storage, entry);
+					continue;
+				}
+
+				try {
+					tickable.tick();
+				} catch (Exception e) {
+					ViaRewind.getPlatform().getLogger().log(Level.WARNING, "Failed to tick " + storage.getClass().getSimpleName(), e);
+				}
+			}
+
+			activeCount = tickables.size();
+			dormantCount = dormant.size();
+		}
+	}
+
+	private static class Entry {
+		private final WeakReference<StoredObject> storage;
+		private int unstoredPasses;
 
-	public static void init() {
-		if (init) return;
-		synchronized (Ticker.class) {
-			if (init) return;
-			init = true;
+		private Entry(StoredObject storage) {
+			this.storage = new WeakReference<>(storage);
 		}
-		Via.getPlatform().runRepeatingSync(() ->
-				Via.getManager().getConnectionManager().getConnections().forEach(user ->
-						user.getStoredObjects().values().stream()
-								.filter(Tickable.class::isInstance)
-								.map(Tickable.class::cast)
-								.forEach(Tickable::tick)
-				), 1L);
 	}
 }
@@ -0,0 +1,98 @@
+/*
+ * This file is part of ViaRewind - https://github.com/ViaVersion/ViaRewind
+ * Copyright (C) 2016-2023 ViaVersion and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.viaversion.viarewind.utils;
+
+import com.viaversion.viaversion.api.minecraft.item.Item;
+import com.viaversion.viaversion.libs.fastutil.ints.IntArrayList;
+import com.viaversion.viaversion.libs.fastutil.ints.IntList;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Remembers the items last sent to the client for each window, so a full window update can be reduced to the slots
+ * which actually changed. Windows have to be forgotten whenever the client may have changed them on its own.
+ */
+public class WindowContents {
+	/**
+	 * Sending single slots is only worth it if at most this fraction of the window changed
+	 */
+	private static final int MAX_CHANGED_FRACTION = 4;
+
+	private final Map<Short, Item[]> windows = new HashMap<>();
+
+	/**
+	 * Compares the items with the ones last sent for the window and remembers them.
+	 *
+	 * @param windowId the window id
+	 * @param items    the translated items which are about to be sent
+	 * @return the changed slots if sending them one by one is cheaper than sending the whole window, null otherwise
+	 */
+	public int[] diff(short windowId, Item[] items) {
+		Item[] previous = windows.get(windowId);
+		Item[] sent = new Item[items.length];
+		windows.put(windowId, sent);
+
+		if (previous == null || previous.length != items.length) {
+			for (int i = 0; i < items.length; i++) {
+				sent[i] = copy(items[i]);
+			}
+			return null;
+		}
+
+		IntList changed = new IntArrayList();
+		for (int i = 0; i < items.length; i++) {
+			if (equals(previous[i], items[i])) {
+				// Unchanged slots keep the copy the client already has
+				sent[i] = previous[i];
+			} else {
+				sent[i] = copy(items[i]);
+				changed.add(i);
+			}
+		}
+		return changed.size() * MAX_CHANGED_FRACTION <= items.length ? changed.toIntArray() : null;
+	}
+
+	/**
+	 * Updates a single slot of a remembered window after it was sent to the client
+	 */
+	public void set(short windowId, int slot, Item item) {
+		Item[] items = windows.get(windowId);
+		if (items != null && slot >= 0 && slot < items.length) {
+			items[slot] = copy(item);
+		}
+	}
+
+	public void remove(short windowId) {
+		windows.remove(windowId);
+	}
+
+	// Items are copied because later protocols modify the sent items in place
+	private static Item copy(Item item) {
+		return item == null ? null : item.copy();
+	}
+
+	private static boolean equals(Item first, Item second) {
+		if (first == second) return true;
+		if (first == null || second == null) return false;
+		return first.identifier() == second.identifier() && first.data() == second.data()
+				&& first.amount() == second.amount() && Objects.equals(first.tag(), second.tag());
+	}
+}
@@ -21,11 +21,13 @@ package com.viaversion.viarewind;
 import com.google.inject.Inject;
 import com.viaversion.viaversion.sponge.util.LoggerWrapper;
 import com.viaversion.viarewind.api.ViaRewindPlatform;
+import org.spongepowered.api.Server;
 import org.spongepowered.api.config.ConfigDir;
 import org.spongepowered.api.event.Listener;
 import org.spongepowered.api.event.Order;
 import org.spongepowered.api.event.lifecycle.ConstructPluginEvent;
 import org.spongepowered.api.event.lifecycle.RefreshGameEvent;
+import org.spongepowered.api.event.lifecycle.StoppingEngineEvent;
 import org.spongepowered.plugin.builtin.jvm.Plugin;
 
 import java.nio.file.Path;
@@ -58,6 +60,11 @@ public class SpongePlugin implements ViaRewindPlatform {
         conf.reloadConfig();
     }
 
+    @Listener
+    public void stop(StoppingEngineEvent<Server> e) {
+        this.disable();
+    }
+
     public Logger getLogger() {
         return this.logger;
     }
@@ -23,6 +23,7 @@ import com.velocitypowered.api.event.PostOrder;
 import com.velocitypowered.api.event.Subscribe;
 import com.velocitypowered.api.event.proxy.ProxyInitializeEvent;
 import com.velocitypowered.api.event.proxy.ProxyReloadEvent;
+import com.velocitypowered.api.event.proxy.ProxyShutdownEvent;
 import com.velocitypowered.api.plugin.Dependency;
 import com.velocitypowered.api.plugin.Plugin;
 import com.velocitypowered.api.plugin.annotation.DataDirectory;
@@ -67,6 +68,11 @@ public class VelocityPlugin implements ViaRewindPlatform {
 		conf.reloadConfig();
 	}
 
+	@Subscribe
+	public void onProxyStop(ProxyShutdownEvent e) {
+		this.disable();
+	}
+
 	public Logger getLogger() {
 		return this.logger;
 	}